@@ -1,21 +1,33 @@
 package com.decathlon.tzatziki.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.awaitility.core.ConditionFactory;
 import org.awaitility.core.ThrowingRunnable;
+import org.awaitility.pollinterval.PollInterval;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.function.Executable;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.lang.Double.parseDouble;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -26,10 +38,18 @@ import static org.awaitility.Awaitility.await;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 @SuppressWarnings("unchecked")
 public class Asserts {
-    public static Duration defaultTimeOut = Duration.ofSeconds(10);
-    public static Duration defaultPollInterval = Duration.ofMillis(10);
+    public static volatile Duration defaultTimeOut = Duration.ofSeconds(10);
+    public static volatile Duration defaultPollInterval = Duration.ofMillis(10);
+    private static final ScenarioContext.Key<Duration> TIME_OUT = ScenarioContext.Key.of("asserts.timeOut", () -> null);
+    private static final ScenarioContext.Key<Duration> POLL_INTERVAL = ScenarioContext.Key.of("asserts.pollInterval", () -> null);
+    // a burst of signals (one per logged line for instance) doesn't evaluate the waiting assertions more often than this
+    private static final Duration MIN_REEVALUATION_INTERVAL = Duration.ofMillis(5);
     private static final Pattern FLAG = Pattern.compile("\\?([\\S]+)(?:[\\s\\n]([\\S\\s]*))?");
+    private static final Pattern INSTANT = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(?:\\.\\d*)?(\\+\\d+:\\d+|Z)?$");
+    private static final Pattern UUID_PATTERN = Pattern.compile("\\b[0-9a-f]{8}\\b-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-\\b[0-9a-f]{12}\\b");
     private static final Map<String, BiConsumer<String, String>> CONSUMER_BY_FLAG = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final Map<String, BiPredicate<String, String>> PREDICATE_BY_FLAG = builtInPredicates();
+    public static final String EXPECTED_CACHE_SIZE = "tzatziki.asserts.cache-size";
 
     // ↓ Equals ↓
 
@@ -46,30 +66,34 @@ public class Asserts {
     }
 
     public static void equals(Object actual, Object expected, boolean inOrder) {
-        List<String> errors = new ArrayList<>();
-        equals(actual, expected, inOrder, Path.start(), errors);
-        if (!errors.isEmpty()) {
-            Assertions.fail(String.join("\n", errors));
-        }
+        Errors.reporting().failIfAnyAfter(errors -> equals(actual, expected, inOrder, Path.start(), errors));
+    }
+
+    /**
+     * Same comparison as {@link #equals(Object, Object, boolean)}, but only tells whether the values are equal, without
+     * building any error message. Meant for the callers that expect the values not to match most of the time.
+     */
+    public static boolean matchesEquals(Object actual, Object expected, boolean inOrder) {
+        return Errors.counting().isEmptyAfter(errors -> equals(actual, expected, inOrder, Path.start(), errors));
     }
 
     @SuppressWarnings("java:S3740") // Suppress Sonar raw types warnings for Map and List
-    private static void equals(Object actual, Object expected, boolean inOrder, Path path, Collection<String> errors) {
+    private static void equals(Object actual, Object expected, boolean inOrder, Path path, Errors errors) {
         if (nullBooleanAndNumberCheckIsOkay(actual, expected, path, errors)) {
             if (actual instanceof String actualString && expected instanceof String expectedString) {
                 try {
-                    if (FLAG.matcher(expectedString).matches()) {
-                        withTryCatch(() -> equals(actualString, expectedString), path, errors);
+                    if (Expected.leaf(expectedString).isFlag()) {
+                        equals(actualString, expectedString, path, errors);
                     } else if (actualString.startsWith("{")) {
-                        equals(Mapper.read(actualString, Map.class), Mapper.read(expectedString, Map.class), inOrder, path, errors);
+                        equals(Mapper.read(actualString, Map.class), Expected.read(expectedString, Map.class), inOrder, path, errors);
                     } else if (actualString.startsWith("[")) {
-                        equals(Mapper.read(actualString, List.class), Mapper.read(expectedString, List.class), inOrder, path, errors);
+                        equals(Mapper.read(actualString, List.class), Expected.read(expectedString, List.class), inOrder, path, errors);
                     } else {
-                        withTryCatch(() -> equals(actualString, expectedString), path, errors);
+                        equals(actualString, expectedString, path, errors);
                     }
                 } catch (Exception e) {
                     // our guess about the Lists and Maps were wrong, lets fallback to plain text
-                    withTryCatch(() -> equals(actualString, expectedString), path, errors);
+                    equals(actualString, expectedString, path, errors);
                 }
             } else if (actual instanceof Map actualMap && expected instanceof Map expectedMap) {
                 equals(actualMap, expectedMap, inOrder, path, errors);
@@ -80,7 +104,7 @@ public class Asserts {
                     equals(actualList, expectedList, inOrder, path, errors);
                 } else {
                     if (expected instanceof String expectedString && Mapper.isList(expectedString)) {
-                        equals(actualList, Mapper.read(expectedString, List.class), inOrder, path, errors);
+                        equals(actualList, Expected.read(expectedString, List.class), inOrder, path, errors);
                     } else {
                         equals(actualList, List.of(expected), inOrder, path, errors);
                     }
@@ -91,21 +115,11 @@ public class Asserts {
         }
     }
 
-    private static void equals(String actual, String expected) {
-        Matcher matcher = FLAG.matcher(expected);
-        if (matcher.matches()) {
-            getConsumer(matcher.group(1)).accept(actual, matcher.group(2));
-        } else {
-            Matcher instantMatcher = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(?:\\.\\d*)?(\\+\\d+:\\d+|Z)?$").matcher(expected);
-            if (instantMatcher.matches()) {
-                if (instantMatcher.group(1) == null) {
-                    expected += "Z";
-                    actual += "Z";
-                }
-                Assertions.assertEquals(Instant.parse(expected), Instant.parse(actual));
-            } else {
-                Assertions.assertEquals(expected, actual);
-            }
+    private static void equals(String actual, String expected, Path path, Errors errors) {
+        Expected.Leaf leaf = Expected.leaf(expected);
+        if (!leaf.matches(actual)) {
+            // the assertion is only replayed to get its message if the error is reported
+            errors.add(path, () -> failureOf(() -> leaf.assertMatches(actual)));
         }
     }
 
@@ -126,7 +140,7 @@ public class Asserts {
             case "isNull" -> (actual, expected) -> assertThat(actual).isNull();
             case "notNull" -> (actual, expected) -> assertThat(actual).isNotNull();
             case "base64" -> (actual, expected) -> assertThat(new String(Base64.getEncoder().encode(actual.getBytes(UTF_8)), UTF_8)).isEqualTo(expected);
-            case "isUUID" -> (actual, expected) -> assertThat(actual).matches("\\b[0-9a-f]{8}\\b-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-\\b[0-9a-f]{12}\\b");
+            case "isUUID" -> (actual, expected) -> assertThat(actual).matches(UUID_PATTERN);
             case "before" -> (actual, expected) -> assertThat(Instant.parse(actual)).isBefore(Instant.parse(expected)); // assuming Instant
             case "after" -> (actual, expected) -> assertThat(Instant.parse(actual)).isAfter(Instant.parse(expected)); // assuming Instant
             case "is" -> (actual, expected) -> Mapper.read(actual, TypeParser.parse(expected));
@@ -135,54 +149,85 @@ public class Asserts {
         });
     }
 
-    private static void equals(Map<String, Object> actual, Map<String, Object> expected, boolean inOrder, Path path, Collection<String> errors) {
-        withFailMessage(() -> assertThat(actual.size()).isEqualTo(expected.size()), () -> """
-                %s
-                doesn't have the same size than:
-                %s
-                """.formatted(Mapper.toYaml(actual), Mapper.toYaml(expected)));
-        expected.forEach((key, expectedValue) -> equals(actual.get(key), expectedValue, inOrder, path.append("." + key), errors));
+    private static Map<String, BiPredicate<String, String>> builtInPredicates() {
+        Map<String, BiPredicate<String, String>> predicates = new ConcurrentHashMap<>();
+        predicates.put("e", (actual, expected) -> actual != null && actual.matches(expected));
+        predicates.put("contains", (actual, expected) -> actual != null && actual.contains(expected));
+        predicates.put("doesNotContain", (actual, expected) -> actual != null && !actual.contains(expected));
+        Stream.of("eq", "==").forEach(flag -> predicates.put(flag, Objects::equals));
+        Stream.of("gt", ">").forEach(flag -> predicates.put(flag, (actual, expected) -> parseDouble(actual) > parseDouble(expected)));
+        Stream.of("ge", ">=").forEach(flag -> predicates.put(flag, (actual, expected) -> parseDouble(actual) >= parseDouble(expected)));
+        Stream.of("lt", "<").forEach(flag -> predicates.put(flag, (actual, expected) -> parseDouble(actual) < parseDouble(expected)));
+        Stream.of("le", "<=").forEach(flag -> predicates.put(flag, (actual, expected) -> parseDouble(actual) <= parseDouble(expected)));
+        Stream.of("not", "ne", "!=").forEach(flag -> predicates.put(flag, (actual, expected) -> !Objects.equals(actual, expected)));
+        predicates.put("in", (actual, expected) -> Mapper.read(expected, List.class).contains(actual));
+        predicates.put("notIn", (actual, expected) -> !Mapper.read(expected, List.class).contains(actual));
+        predicates.put("isNull", (actual, expected) -> actual == null);
+        predicates.put("notNull", (actual, expected) -> actual != null);
+        predicates.put("isUUID", (actual, expected) -> actual != null && UUID_PATTERN.matcher(actual).matches());
+        predicates.put("before", (actual, expected) -> Instant.parse(actual).isBefore(Instant.parse(expected)));
+        predicates.put("after", (actual, expected) -> Instant.parse(actual).isAfter(Instant.parse(expected)));
+        predicates.put("ignore", (actual, expected) -> true);
+        return predicates;
+    }
+
+    private static void equals(Map<String, Object> actual, Map<String, Object> expected, boolean inOrder, Path path, Errors errors) {
+        if (actual.size() != expected.size()) {
+            errors.abort(() -> """
+                    %s
+                    doesn't have the same size than:
+                    %s
+                    """.formatted(Mapper.toYaml(actual), Mapper.toYaml(expected)));
+        }
+        expected.forEach((key, expectedValue) -> equals(actual.get(key), expectedValue, inOrder, path.field(key), errors));
     }
 
-    private static void equals(List<Object> actual, List<Object> expected, boolean inOrder, Path path, Collection<String> errors) {
-        withFailMessage(() -> assertThat(actual.size()).isEqualTo(expected.size()), () -> """
-                %s
-                doesn't have the same size than:
-                %s
-                """.formatted(Mapper.toYaml(actual), Mapper.toYaml(expected)));
-        List<String> listErrors = new ArrayList<>();
+    private static void equals(List<Object> actual, List<Object> expected, boolean inOrder, Path path, Errors errors) {
+        if (actual.size() != expected.size()) {
+            errors.abort(() -> """
+                    %s
+                    doesn't have the same size than:
+                    %s
+                    """.formatted(Mapper.toYaml(actual), Mapper.toYaml(expected)));
+        }
+        Errors listErrors = errors.forList();
         if (inOrder) {
             for (int i = 0; i < expected.size(); i++) {
-                equals(actual.get(i), expected.get(i), true, path.append("[" + i + "]"), listErrors);
+                equals(actual.get(i), expected.get(i), true, path.index(i), listErrors);
             }
         } else {
+            Candidates candidates = Candidates.of(actual);
             for (int i = 0; i < expected.size(); i++) {
-                Set<String> elementErrors = new LinkedHashSet<>();
-                Path element = path.append("[" + i + "]");
+                Object expectedElement = expected.get(i);
+                if (candidates.findBeforeAnyAbort(expectedElement).anyMatch(j -> matchesEquals(actual.get(j), expectedElement, false))) {
+                    continue;
+                }
+                Errors elementErrors = errors.forElement();
+                Path element = path.index(i);
                 boolean match = false;
                 for (Object o : actual) {
-                    int currentErrors = elementErrors.size();
-                    equals(o, expected.get(i), false, element, elementErrors);
-                    if (currentErrors == elementErrors.size()) {
+                    int currentErrors = elementErrors.count();
+                    equals(o, expectedElement, false, element, elementErrors);
+                    if (currentErrors == elementErrors.count()) {
                         match = true;
                         break;
                     }
                 }
                 if (!match) {
-                    listErrors.add(elementErrors.stream().map(e -> e.replace("\n", " ")).collect(Collectors.joining("\n\t")));
+                    listErrors.add(() -> elementErrors.messages().map(e -> e.replace("\n", " ")).collect(Collectors.joining("\n\t")));
                 }
             }
         }
         if (!listErrors.isEmpty()) {
-            errors.add("""
+            errors.add(() -> """
                     %s
                     is not equal to expected:
                     \t%s
-                    """.formatted(Mapper.toYaml(actual), String.join("\n\t", listErrors)));
+                    """.formatted(Mapper.toYaml(actual), listErrors.join("\n\t")));
         }
     }
 
-    private static void equalsExpectedMap(Object actual, Map expected, boolean inOrder, Path path, Collection<String> errors) {
+    private static void equalsExpectedMap(Object actual, Map expected, boolean inOrder, Path path, Errors errors) {
         tryReadAsMap(actual)
                 .ifPresentOrElse(
                         actualMap -> equals(actualMap, expected, inOrder, path, errors),
@@ -209,28 +254,32 @@ public class Asserts {
     }
 
     public static void contains(Object actual, Object expected, boolean strictListSize, boolean inOrder) {
-        List<String> errors = new ArrayList<>();
-        contains(actual, expected, strictListSize, inOrder, Path.start(), errors);
-        if (!errors.isEmpty()) {
-            Assertions.fail(String.join("\n", errors));
-        }
+        Errors.reporting().failIfAnyAfter(errors -> contains(actual, expected, strictListSize, inOrder, Path.start(), errors));
+    }
+
+    /**
+     * Same comparison as {@link #contains(Object, Object, boolean, boolean)}, but only tells whether the actual value
+     * contains the expected one, without building any error message.
+     */
+    public static boolean matchesContains(Object actual, Object expected, boolean strictListSize, boolean inOrder) {
+        return Errors.counting().isEmptyAfter(errors -> contains(actual, expected, strictListSize, inOrder, Path.start(), errors));
     }
 
     @SuppressWarnings("java:S3740") // Suppress Sonar raw types warnings for Map and List
-    private static void contains(Object actual, Object expected, boolean strictListSize, boolean inOrder, Path path, Collection<String> errors) {
+    private static void contains(Object actual, Object expected, boolean strictListSize, boolean inOrder, Path path, Errors errors) {
         if (nullBooleanAndNumberCheckIsOkay(actual, expected, path, errors)) {
             if (actual instanceof String actualString && expected instanceof String expectedString) {
                 try {
                     if (actualString.startsWith("{")) {
-                        contains(Mapper.read(actualString, Map.class), Mapper.read(expectedString, Map.class), strictListSize, inOrder, path, errors);
+                        contains(Mapper.read(actualString, Map.class), Expected.read(expectedString, Map.class), strictListSize, inOrder, path, errors);
                     } else if (actualString.startsWith("[")) {
-                        contains(Mapper.read(actualString, List.class), Mapper.readAsAListOf(expectedString, Object.class), strictListSize, inOrder, path, errors);
+                        contains(Mapper.read(actualString, List.class), Expected.readAsAList(expectedString), strictListSize, inOrder, path, errors);
                     } else {
-                        withTryCatch(() -> equals(actualString, expectedString), path, errors);
+                        equals(actualString, expectedString, path, errors);
                     }
                 } catch (Exception e) {
                     // our guess about the Lists and Maps were wrong, lets fallback to plain text
-                    withTryCatch(() -> equals(actualString, expectedString), path, errors);
+                    equals(actualString, expectedString, path, errors);
                 }
             } else if (expected instanceof String) {
                 contains(Mapper.toJson(actual), expected, strictListSize, inOrder, path, errors);
@@ -248,7 +297,7 @@ public class Asserts {
                     contains(actualList, expecteList, strictListSize, inOrder, path, errors);
                 } else {
                     if (expected instanceof String expectedString && Mapper.isList(expectedString)) {
-                        contains(actualList, Mapper.read(expectedString, List.class), strictListSize, inOrder, path, errors);
+                        contains(actualList, Expected.read(expectedString, List.class), strictListSize, inOrder, path, errors);
                     } else {
                         contains(actualList, List.of(expected), strictListSize, inOrder, path, errors);
                     }
@@ -259,33 +308,43 @@ public class Asserts {
         }
     }
 
-    private static void contains(Map<String, Object> actual, Map<String, Object> expected, boolean strictListSize, boolean inOrder, Path path, Collection<String> errors) {
-        expected.forEach((key, expectedValue) -> contains(actual.get(key), expectedValue, strictListSize, inOrder, path.append("." + key), errors));
+    private static void contains(Map<String, Object> actual, Map<String, Object> expected, boolean strictListSize, boolean inOrder, Path path, Errors errors) {
+        expected.forEach((key, expectedValue) -> contains(actual.get(key), expectedValue, strictListSize, inOrder, path.field(key), errors));
     }
 
-    private static void contains(List<Object> actual, List<Object> expected, boolean strictListSize, boolean inOrder, Path path, Collection<String> errors) {
-        if (strictListSize) {
-            withTryCatch(() -> assertThat(actual).hasSameSizeAs(expected), path, errors);
-        } else {
-            withTryCatch(() -> assertThat(actual).size().isGreaterThanOrEqualTo(expected.size()), path, errors);
+    private static void contains(List<Object> actual, List<Object> expected, boolean strictListSize, boolean inOrder, Path path, Errors errors) {
+        if (strictListSize ? actual.size() != expected.size() : actual.size() < expected.size()) {
+            errors.add(path, () -> failureOf(strictListSize
+                    ? () -> assertThat(actual).hasSameSizeAs(expected)
+                    : () -> assertThat(actual).size().isGreaterThanOrEqualTo(expected.size())));
         }
-        List<String> listErrors = new ArrayList<>();
+        Errors listErrors = errors.forList();
         Set<Integer> matches = new LinkedHashSet<>();
 
+        Candidates candidates = inOrder ? Candidates.NONE : Candidates.of(actual);
         int j = 0;
         for (int i = 0; i < expected.size(); i++) {
-            Set<String> elementErrors = new LinkedHashSet<>();
-            Set<String> minElementErrors = null;
+            Object expectedElement = expected.get(i);
+            OptionalInt candidate = candidates.find(expectedElement)
+                    .filter(index -> !matches.contains(index + 1))
+                    .filter(index -> matchesContains(actual.get(index), expectedElement, strictListSize, false))
+                    .findFirst();
+            if (candidate.isPresent()) {
+                matches.add(candidate.getAsInt() + 1);
+                continue;
+            }
+            Errors elementErrors = errors.forElement();
+            Errors minElementErrors = null;
             boolean match = false;
             if (!inOrder) {
                 j = 0; // we start again only if we don't expect the content to be ordered
             }
             while (j < actual.size()) {
-                Path element = path.append("[" + i + "]!=[" + j + "]");
+                Path element = path.index(i, j);
                 elementErrors.clear();
-                contains(actual.get(j), expected.get(i), strictListSize, inOrder, element, elementErrors);
-                if (minElementErrors == null || minElementErrors.size() > elementErrors.size()) {
-                    minElementErrors = Set.copyOf(elementErrors);
+                contains(actual.get(j), expectedElement, strictListSize, inOrder, element, elementErrors);
+                if (minElementErrors == null || minElementErrors.count() > elementErrors.count()) {
+                    minElementErrors = elementErrors.copy();
                 }
                 j++;
                 if (elementErrors.isEmpty() && !matches.contains(j)) {
@@ -296,23 +355,24 @@ public class Asserts {
             }
             if (!match) {
                 if (minElementErrors != null && !minElementErrors.isEmpty()) {
-                    listErrors.add(minElementErrors.stream().map(e -> e.replace("\n", " ")).collect(Collectors.joining("\n\t")));
+                    Errors closestErrors = minElementErrors;
+                    listErrors.add(() -> closestErrors.messages().map(e -> e.replace("\n", " ")).collect(Collectors.joining("\n\t")));
                 } else {
-                    listErrors.add("The actual list is not in the order expected");
+                    listErrors.add(() -> "The actual list is not in the order expected");
                 }
             }
         }
 
         if (!listErrors.isEmpty()) {
-            errors.add("""
+            errors.add(() -> """
                     %s
                     comparison error:
                     \t%s
-                    """.formatted(Mapper.toYaml(actual), String.join("\n\t", listErrors)));
+                    """.formatted(Mapper.toYaml(actual), listErrors.join("\n\t")));
         }
     }
 
-    private static void containsExpectedMap(Object actual, Map expected, boolean strictListSize, boolean inOrder, Path path, Collection<String> errors) {
+    private static void containsExpectedMap(Object actual, Map expected, boolean strictListSize, boolean inOrder, Path path, Errors errors) {
         tryReadAsMap(actual)
                 .ifPresentOrElse(
                         actualMap -> contains(actualMap, expected, strictListSize, inOrder, path, errors),
@@ -322,42 +382,119 @@ public class Asserts {
 
     // ↓ Utils ↓
 
+    /**
+     * @return the timeout of the running scenario if it was overridden with {@link #withTimeOut(Duration, Runnable)},
+     * {@link #defaultTimeOut} otherwise
+     */
+    public static Duration timeOut() {
+        Duration timeOut = ScenarioContext.current().get(TIME_OUT);
+        return timeOut != null ? timeOut : defaultTimeOut;
+    }
+
+    /**
+     * Runs the given runnable with a different default timeout, without affecting the other scenarios.
+     */
+    public static void withTimeOut(Duration timeOut, Runnable runnable) {
+        ScenarioContext context = ScenarioContext.current();
+        Duration previous = context.set(TIME_OUT, timeOut);
+        try {
+            runnable.run();
+        } finally {
+            context.set(TIME_OUT, previous);
+        }
+    }
+
+    /**
+     * @return the poll interval of the running scenario if it was overridden with
+     * {@link #withPollInterval(Duration, Runnable)}, {@link #defaultPollInterval} otherwise
+     */
+    public static Duration pollInterval() {
+        Duration pollInterval = ScenarioContext.current().get(POLL_INTERVAL);
+        return pollInterval != null ? pollInterval : defaultPollInterval;
+    }
+
+    /**
+     * Runs the given runnable with a different poll interval, without affecting the other scenarios.
+     */
+    public static void withPollInterval(Duration pollInterval, Runnable runnable) {
+        ScenarioContext context = ScenarioContext.current();
+        Duration previous = context.set(POLL_INTERVAL, pollInterval);
+        try {
+            runnable.run();
+        } finally {
+            context.set(POLL_INTERVAL, previous);
+        }
+    }
+
     public static void awaitUntilAsserted(ThrowingRunnable runnable) {
-        awaitUntilAsserted(runnable, defaultTimeOut);
+        awaitUntilAsserted(runnable, timeOut());
     }
 
     public static void awaitUntilAsserted(ThrowingRunnable runnable, Duration timeOut) {
-        await().pollDelay(Duration.ZERO).pollInterval(defaultPollInterval).atMost(timeOut).untilAsserted(runnable);
+        awaitInScenario().pollInterval(untilSignaled()).atMost(timeOut).untilAsserted(runnable);
     }
 
     public static void awaitDuring(ThrowingRunnable runnable, Duration timeOut) {
-        await().pollDelay(Duration.ZERO).pollInterval(defaultPollInterval).during(timeOut).atMost(timeOut.plusMillis(500)).untilAsserted(runnable);
+        awaitInScenario().during(timeOut).atMost(timeOut.plusMillis(500)).untilAsserted(runnable);
     }
 
     public static void awaitUntil(Callable<Boolean> callable) {
-        awaitUntil(callable, defaultTimeOut);
+        awaitUntil(callable, timeOut());
     }
 
     public static void awaitUntil(Callable<Boolean> callable, Duration timeOut) {
-        await().pollDelay(Duration.ZERO).pollInterval(defaultPollInterval).atMost(timeOut).until(callable);
+        awaitInScenario().pollInterval(untilSignaled()).atMost(timeOut).until(callable);
+    }
+
+    /**
+     * Waits between two evaluations until something signals a change through {@link Signals}, or for
+     * {@link #pollInterval()} at most. Awaitility asks for the next interval right after an evaluation failed, the
+     * signals received since the evaluation started are not missed. The signals received within
+     * {@link #MIN_REEVALUATION_INTERVAL} of the previous evaluation are coalesced into the next one.
+     */
+    private static PollInterval untilSignaled() {
+        Duration pollInterval = pollInterval();
+        long[] seen = {Signals.generation()};
+        long[] evaluatedAt = {System.nanoTime()};
+        return (pollCount, previousDuration) -> {
+            try {
+                seen[0] = Signals.await(seen[0], pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long now = System.nanoTime();
+            long delay = Math.max(0, evaluatedAt[0] + MIN_REEVALUATION_INTERVAL.toNanos() - now);
+            evaluatedAt[0] = now + delay;
+            return Duration.ofNanos(delay);
+        };
+    }
+
+    // awaitility polls from its own thread, which needs to see the context of the scenario that is waiting
+    private static ConditionFactory awaitInScenario() {
+        return await().pollDelay(Duration.ZERO).pollInterval(pollInterval())
+                .pollThread(runnable -> {
+                    Thread thread = new Thread(ScenarioContext.wrap(runnable), "awaitility-thread");
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     public static <T extends Throwable> void threwException(Executable runnable, Class<T> expectedException) {
         Assertions.assertThrows(expectedException, runnable);
     }
 
-    private static boolean nullBooleanAndNumberCheckIsOkay(Object actual, Object expected, Path path, Collection<String> errors) {
+    private static boolean nullBooleanAndNumberCheckIsOkay(Object actual, Object expected, Path path, Errors errors) {
         if (actual != null || expected != null) {
             if (actual == null) {
                 if (!"?isNull".equals(expected) && !"?ignore".equals(expected)) {
-                    errors.add(path.failedWith("actual was null, was expecting: %s".formatted(expected)));
+                    errors.add(path, () -> "actual was null, was expecting: %s".formatted(expected));
                 }
             } else if (expected == null) {
-                errors.add(path.failedWith("expecting null, but was: %s".formatted(actual)));
+                errors.add(path, () -> "expecting null, but was: %s".formatted(actual));
             } else if (actual instanceof Number && expected instanceof Number) {
-                withTryCatch(() -> equals(actual.toString(), expected.toString()), path, errors);
+                equals(actual.toString(), expected.toString(), path, errors);
             } else if (actual instanceof Boolean && expected instanceof Boolean) {
-                withTryCatch(() -> equals(actual.toString(), expected.toString()), path, errors);
+                equals(actual.toString(), expected.toString(), path, errors);
             } else {
                 return true;
             }
@@ -365,11 +502,21 @@ public class Asserts {
         return false;
     }
 
-    private static void withTryCatch(Runnable runnable, Path path, Collection<String> errors) {
+    private static boolean succeeds(Runnable runnable) {
         try {
             runnable.run();
+            return true;
+        } catch (Throwable throwable) {
+            return false;
+        }
+    }
+
+    private static String failureOf(Runnable assertion) {
+        try {
+            assertion.run();
+            return null;
         } catch (Throwable throwable) {
-            errors.add(path.failedWith(throwable.getMessage()));
+            return throwable.getMessage();
         }
     }
 
@@ -393,8 +540,8 @@ public class Asserts {
         }
     }
 
-    private static void addNotAMapError(Object actual, Path path, Collection<String> errors) {
-        errors.add(path.failedWith("expected an object but was: %s".formatted(renderValue(actual))));
+    private static void addNotAMapError(Object actual, Path path, Errors errors) {
+        errors.add(path, () -> "expected an object but was: %s".formatted(renderValue(actual)));
     }
 
     private static String renderValue(Object actual) {
@@ -424,31 +571,450 @@ public class Asserts {
      */
     public static void addFlag(String flagName, BiConsumer<String, String> assertion) {
         CONSUMER_BY_FLAG.put(flagName, assertion);
+        // the built-in predicate doesn't know about the new assertion
+        PREDICATE_BY_FLAG.remove(flagName);
+        Expected.LEAVES.invalidateAll();
     }
 
-    private static class Path {
+    /**
+     * Where a comparison stands in the compared values. The path is only rendered when an error is reported.
+     */
+    private static final class Path {
+
+        private static final Path START = new Path(null, null, -1, -1);
 
-        protected final String path;
+        private final Path parent;
+        private final String field;
+        private final int index;
+        private final int actualIndex;
 
-        private Path(String path) {
-            this.path = path;
+        private Path(Path parent, String field, int index, int actualIndex) {
+            this.parent = parent;
+            this.field = field;
+            this.index = index;
+            this.actualIndex = actualIndex;
         }
 
-        private Path append(String next) {
-            return new Path(path + next);
+        private Path field(String field) {
+            return new Path(this, field, -1, -1);
+        }
+
+        private Path index(int index) {
+            return new Path(this, null, index, -1);
+        }
+
+        private Path index(int index, int actualIndex) {
+            return new Path(this, null, index, actualIndex);
         }
 
         private String failedWith(String message) {
-            return path + "' -> " + message;
+            return this + "' -> " + message;
         }
 
         private static Path start() {
-            return new Path("");
+            return START;
         }
 
         @Override
         public String toString() {
-            return path;
+            if (parent == null) {
+                return "";
+            }
+            if (field != null) {
+                return parent + "." + field;
+            }
+            return parent + "[" + index + "]" + (actualIndex < 0 ? "" : "!=[" + actualIndex + "]");
+        }
+    }
+
+    /**
+     * The compiled form of the expected values. Guards poll the same assertion until it passes and scenarios share their
+     * expected payloads, so each expected string is only parsed once: the structures are kept read-only, and the leaves
+     * keep their resolved flag with its precompiled arguments.
+     */
+    private static final class Expected {
+
+        private static final long CACHE_SIZE = Long.getLong(EXPECTED_CACHE_SIZE, 10_000L);
+        private static final Cache<Structure, Object> STRUCTURES = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+        private static final Cache<String, Leaf> LEAVES = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+        private record Structure(String content, Class<?> type, boolean dotPropertiesToObject) {}
+
+        private static <E> E read(String expected, Class<E> type) {
+            return (E) structure(new Structure(expected, type, Mapper.convertsDotPropertiesToObject()));
+        }
+
+        private static List<Object> readAsAList(String expected) {
+            // null stands for Mapper.readAsAListOf, which doesn't read the content the same way as Mapper.read
+            return (List<Object>) structure(new Structure(expected, null, Mapper.convertsDotPropertiesToObject()));
+        }
+
+        // the content that can't be read isn't cached, the callers usually fall back to comparing the raw strings
+        private static Object structure(Structure key) {
+            return STRUCTURES.asMap().computeIfAbsent(key, k -> readOnly(k.type() == null
+                    ? Mapper.readAsAListOf(k.content(), Object.class)
+                    : Mapper.read(k.content(), k.type())));
+        }
+
+        private static Object readOnly(Object value) {
+            if (value instanceof Map<?, ?> map) {
+                Map<Object, Object> copy = new LinkedHashMap<>();
+                map.forEach((key, element) -> copy.put(key, readOnly(element)));
+                return Collections.unmodifiableMap(copy);
+            }
+            if (value instanceof List<?> list) {
+                List<Object> copy = new ArrayList<>(list.size());
+                list.forEach(element -> copy.add(readOnly(element)));
+                return Collections.unmodifiableList(copy);
+            }
+            return value;
+        }
+
+        private static Leaf leaf(String expected) {
+            return Caches.get(LEAVES, expected, () -> Leaf.of(expected));
+        }
+
+        /**
+         * An expected string with what it takes to compare a value to it, with or without an assertion error.
+         */
+        private record Leaf(Kind kind, Predicate<String> predicate, Consumer<String> assertion) {
+
+            private enum Kind {FLAG, INSTANT, PLAIN}
+
+            private static Leaf of(String expected) {
+                Matcher matcher = FLAG.matcher(expected);
+                if (matcher.matches()) {
+                    String flag = matcher.group(1);
+                    String argument = matcher.group(2);
+                    BiConsumer<String, String> consumer = getConsumer(flag);
+                    Consumer<String> assertion = actual -> consumer.accept(actual, argument);
+                    return new Leaf(Kind.FLAG, flagPredicate(flag, argument, assertion), assertion);
+                }
+                Matcher instantMatcher = INSTANT.matcher(expected);
+                if (instantMatcher.matches()) {
+                    String zone = instantMatcher.group(1) == null ? "Z" : "";
+                    Instant expectedInstant;
+                    try {
+                        expectedInstant = Instant.parse(expected + zone);
+                    } catch (DateTimeParseException e) {
+                        return new Leaf(Kind.INSTANT, actual -> false, actual -> Instant.parse(expected + zone));
+                    }
+                    return new Leaf(Kind.INSTANT, actual -> {
+                        try {
+                            return expectedInstant.equals(Instant.parse(actual + zone));
+                        } catch (DateTimeParseException e) {
+                            return false;
+                        }
+                    }, actual -> Assertions.assertEquals(expectedInstant, Instant.parse(actual + zone)));
+                }
+                return new Leaf(Kind.PLAIN, expected::equals, actual -> Assertions.assertEquals(expected, actual));
+            }
+
+            /**
+             * The built-in flags are evaluated as predicates, the custom ones can only be evaluated by running their
+             * assertion.
+             */
+            private static Predicate<String> flagPredicate(String flag, String argument, Consumer<String> assertion) {
+                BiPredicate<String, String> predicate = PREDICATE_BY_FLAG.get(flag);
+                if (predicate == null) {
+                    return actual -> succeeds(() -> assertion.accept(actual));
+                }
+                if ("e".equals(flag)) {
+                    if (argument == null) {
+                        // the assertion fails with the message of assertj
+                        return actual -> false;
+                    }
+                    try {
+                        Pattern pattern = Pattern.compile(argument);
+                        return actual -> actual != null && pattern.matcher(actual).matches();
+                    } catch (PatternSyntaxException e) {
+                        return actual -> false;
+                    }
+                }
+                return actual -> {
+                    try {
+                        return predicate.test(actual, argument);
+                    } catch (RuntimeException e) {
+                        // the flag assertion would have failed on the same value, e.g. a number that can't be parsed
+                        return false;
+                    }
+                };
+            }
+
+            private boolean isFlag() {
+                return kind == Kind.FLAG;
+            }
+
+            private boolean isPlain() {
+                return kind == Kind.PLAIN;
+            }
+
+            private boolean matches(String actual) {
+                return predicate.test(actual);
+            }
+
+            private void assertMatches(String actual) {
+                assertion.accept(actual);
+            }
+        }
+    }
+
+    /**
+     * Indexes the elements of an actual list by the values of the plain scalar fields of the expected elements, so that
+     * the elements holding the same values are compared first. The candidates are only a shortcut: an element that is
+     * not one could still match through a flag or a type conversion, so the list still has to be scanned when none of
+     * them matches.
+     * <p>
+     * When looking for an equal element, the scan ends the whole comparison on the first element that has another size
+     * than the expected one, even if a later element would have matched. A candidate is therefore only used if none of
+     * the elements before it could have ended the scan this way.
+     */
+    private static final class Candidates {
+
+        private static final int MIN_SIZE = 16;
+        private static final Candidates NONE = new Candidates(List.of());
+
+        private final List<Object> actual;
+        private final Map<List<Object>, Map<List<String>, int[]>> indexByFields = new HashMap<>();
+        private final Map<Set<?>, Integer> firstAbortByFields = new HashMap<>();
+        private List<Map<?, ?>> actualMaps;
+
+        private Candidates(List<Object> actual) {
+            this.actual = actual;
+        }
+
+        private static Candidates of(List<Object> actual) {
+            // below a few elements, scanning the list costs less than indexing it
+            return actual.size() < MIN_SIZE ? NONE : new Candidates(actual);
+        }
+
+        private IntStream find(Object expected) {
+            if (actual.isEmpty() || !(expected instanceof Map<?, ?> expectedMap)) {
+                return IntStream.empty();
+            }
+            List<Object> fields = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            expectedMap.forEach((field, value) -> {
+                if (isPlainScalar(value)) {
+                    fields.add(field);
+                    values.add(value.toString());
+                }
+            });
+            if (fields.isEmpty()) {
+                return IntStream.empty();
+            }
+            int[] candidates = indexByFields.computeIfAbsent(fields, this::index).get(values);
+            return candidates == null ? IntStream.empty() : IntStream.of(candidates);
+        }
+
+        /**
+         * @return the candidates for an equal element that the scan of the list would have reached
+         */
+        private IntStream findBeforeAnyAbort(Object expected) {
+            if (!(expected instanceof Map<?, ?> expectedMap) || !expectedMap.values().stream().allMatch(Candidates::isFlat)) {
+                // the nested structures of the expected element could end the scan on any element
+                return IntStream.empty();
+            }
+            int firstAbort = firstAbortByFields.computeIfAbsent(new HashSet<>(expectedMap.keySet()), this::firstAbort);
+            return find(expected).filter(index -> index < firstAbort);
+        }
+
+        /**
+         * @return the index of the first element whose comparison with an expected element having these flat fields
+         * could be aborted, or the size of the list if there is none
+         */
+        private int firstAbort(Set<?> fields) {
+            List<Map<?, ?>> maps = actualMaps();
+            for (int i = 0; i < maps.size(); i++) {
+                Map<?, ?> actualMap = maps.get(i);
+                if (actualMap == null || actualMap.size() != fields.size() || !fields.stream().allMatch(field -> isFlat(actualMap.get(field)))) {
+                    return i;
+                }
+            }
+            return maps.size();
+        }
+
+        private Map<List<String>, int[]> index(List<Object> fields) {
+            Map<List<String>, List<Integer>> index = new HashMap<>();
+            List<Map<?, ?>> maps = actualMaps();
+            for (int i = 0; i < maps.size(); i++) {
+                Map<?, ?> actualMap = maps.get(i);
+                if (actualMap != null) {
+                    List<String> values = new ArrayList<>(fields.size());
+                    fields.forEach(field -> values.add(String.valueOf(actualMap.get(field))));
+                    index.computeIfAbsent(values, v -> new ArrayList<>()).add(i);
+                }
+            }
+            Map<List<String>, int[]> candidates = new HashMap<>();
+            index.forEach((values, indexes) -> candidates.put(values, indexes.stream().mapToInt(Integer::intValue).toArray()));
+            return candidates;
+        }
+
+        private List<Map<?, ?>> actualMaps() {
+            if (actualMaps == null) {
+                actualMaps = new ArrayList<>(actual.size());
+                actual.forEach(element -> actualMaps.add(asMap(element)));
+            }
+            return actualMaps;
+        }
+
+        private static Map<?, ?> asMap(Object element) {
+            if (element instanceof Map<?, ?> map) {
+                return map;
+            }
+            if (element instanceof String string && string.startsWith("{")) {
+                try {
+                    return Mapper.read(string, Map.class);
+                } catch (Exception e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        // the values that are never compared as a map or a list
+        private static boolean isFlat(Object value) {
+            return value == null || value instanceof Number || value instanceof Boolean
+                    || value instanceof String string && !string.startsWith("{") && !string.startsWith("[");
+        }
+
+        // the values that can only be equal to an actual value with the same string representation
+        private static boolean isPlainScalar(Object value) {
+            if (value instanceof Number || value instanceof Boolean) {
+                return true;
+            }
+            return value instanceof String string
+                    && !string.startsWith("{") && !string.startsWith("[")
+                    && Expected.leaf(string).isPlain();
+        }
+    }
+
+    /**
+     * The errors found by a comparison. The errors only keep what is needed to describe them, and their messages are
+     * rendered once, when the comparison fails. When only the outcome of the comparison matters, the errors are just
+     * counted.
+     */
+    private static final class Errors {
+
+        private final List<Supplier<String>> failures;
+        private final boolean distinct;
+        private int count;
+
+        private Errors(List<Supplier<String>> failures, boolean distinct) {
+            this.failures = failures;
+            this.distinct = distinct;
+        }
+
+        private static Errors reporting() {
+            return new Errors(new ArrayList<>(), false);
+        }
+
+        private static Errors counting() {
+            return new Errors(null, false);
+        }
+
+        private Errors forList() {
+            return new Errors(failures != null ? new ArrayList<>() : null, false);
+        }
+
+        /**
+         * The same element can fail the same way against several actual elements, the duplicated messages are only
+         * rendered once.
+         */
+        private Errors forElement() {
+            return new Errors(failures != null ? new ArrayList<>() : null, true);
+        }
+
+        private Errors copy() {
+            Errors copy = new Errors(failures != null ? new ArrayList<>(failures) : null, distinct);
+            copy.count = count;
+            return copy;
+        }
+
+        private void add(Supplier<String> message) {
+            count++;
+            if (failures != null) {
+                failures.add(message);
+            }
+        }
+
+        private void add(Path path, Supplier<String> message) {
+            count++;
+            if (failures != null) {
+                failures.add(() -> path.failedWith(message.get()));
+            }
+        }
+
+        /**
+         * For the errors that end the whole comparison right away.
+         */
+        private void abort(Supplier<String> message) {
+            throw failures != null ? new Aborted(message) : Mismatch.INSTANCE;
+        }
+
+        private boolean isEmptyAfter(Consumer<Errors> comparison) {
+            try {
+                comparison.accept(this);
+            } catch (Mismatch mismatch) {
+                return false;
+            }
+            return isEmpty();
+        }
+
+        private void failIfAnyAfter(Consumer<Errors> comparison) {
+            try {
+                comparison.accept(this);
+            } catch (Aborted aborted) {
+                Assertions.fail(aborted.message.get());
+            }
+            if (!isEmpty()) {
+                Assertions.fail(join("\n"));
+            }
+        }
+
+        private int count() {
+            return count;
+        }
+
+        private boolean isEmpty() {
+            return count == 0;
+        }
+
+        private void clear() {
+            count = 0;
+            if (failures != null) {
+                failures.clear();
+            }
+        }
+
+        private Stream<String> messages() {
+            Stream<String> messages = failures.stream().map(Supplier::get);
+            return distinct ? messages.distinct() : messages;
+        }
+
+        private String join(String delimiter) {
+            return messages().collect(Collectors.joining(delimiter));
+        }
+    }
+
+    // ends a reported comparison, its message is only rendered if nothing catches it
+    private static final class Aborted extends Error {
+
+        private final transient Supplier<String> message;
+
+        private Aborted(Supplier<String> message) {
+            super(null, null, false, false);
+            this.message = message;
+        }
+    }
+
+    // ends a counting comparison, it is never reported so it doesn't need a message nor a stack trace
+    private static final class Mismatch extends Error {
+
+        private static final Mismatch INSTANCE = new Mismatch();
+
+        private Mismatch() {
+            super(null, null, false, false);
         }
     }
 }
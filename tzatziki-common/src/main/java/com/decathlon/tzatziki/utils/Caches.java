@@ -0,0 +1,28 @@
+package com.decathlon.tzatziki.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.ExecutionException;
+
+import static com.decathlon.tzatziki.utils.Unchecked.rethrow;
+import static com.decathlon.tzatziki.utils.Unchecked.unchecked;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Caches {
+
+    /**
+     * @return the value cached for the given key, computed by the given loader if missing. The threads asking for the
+     * same missing key wait for a single computation, and the exceptions thrown by the loader are rethrown as is.
+     */
+    public static <K, V> V get(Cache<K, V> cache, K key, Unchecked.Supplier<V> loader) {
+        try {
+            return cache.get(key, () -> unchecked(loader));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            return rethrow(e.getCause());
+        }
+    }
+}
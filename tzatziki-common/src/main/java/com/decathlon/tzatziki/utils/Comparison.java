@@ -2,32 +2,42 @@ package com.decathlon.tzatziki.utils;
 
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 
 public enum Comparison {
 
-    EQUALS(Asserts::equalsInAnyOrder, "is equal to", "=="),
-    IS_EXACTLY(Asserts::equalsInOrder, "is exactly", "exactly"),
-    CONTAINS(Asserts::contains, "contains?", "contains? at least", "at least"),
-    CONTAINS_IN_ORDER(Asserts::containsInOrder, "contains? in order", "contains? at least and in order", "at least and in order", "in order"),
-    CONTAINS_ONLY(Asserts::containsOnly, "contains? only", "only"),
-    CONTAINS_ONLY_IN_ORDER(Asserts::containsOnlyInOrder, "contains? only and in order", "only and in order");
+    EQUALS(Asserts::equalsInAnyOrder, (actual, expected) -> Asserts.matchesEquals(actual, expected, false), "is equal to", "=="),
+    IS_EXACTLY(Asserts::equalsInOrder, (actual, expected) -> Asserts.matchesEquals(actual, expected, true), "is exactly", "exactly"),
+    CONTAINS(Asserts::contains, (actual, expected) -> Asserts.matchesContains(actual, expected, false, false), "contains?", "contains? at least", "at least"),
+    CONTAINS_IN_ORDER(Asserts::containsInOrder, (actual, expected) -> Asserts.matchesContains(actual, expected, false, true), "contains? in order", "contains? at least and in order", "at least and in order", "in order"),
+    CONTAINS_ONLY(Asserts::containsOnly, (actual, expected) -> Asserts.matchesContains(actual, expected, true, false), "contains? only", "only"),
+    CONTAINS_ONLY_IN_ORDER(Asserts::containsOnlyInOrder, (actual, expected) -> Asserts.matchesContains(actual, expected, true, true), "contains? only and in order", "only and in order");
 
     public static final String IS_COMPARED_TO = "(?: (contains?|contains? only(?: and in order)?|contains? at least(?: and in order)?|contains? in order|contains? exactly|==|is equal to|is exactly))";
     public static final String COMPARING_WITH = "(?: (only(?: and in order)?|at least(?: and in order)?|in order|exactly))?";
 
     private final Set<String> titles;
     private final BiConsumer<Object, Object> function;
+    private final BiPredicate<Object, Object> predicate;
 
-    Comparison(BiConsumer<Object, Object> function, String... titles) {
+    Comparison(BiConsumer<Object, Object> function, BiPredicate<Object, Object> predicate, String... titles) {
         this.titles = Set.of(titles);
         this.function = function;
+        this.predicate = predicate;
     }
 
     public void compare(Object actual, Object expected) {
         function.accept(actual, expected);
     }
 
+    /**
+     * @return true if {@link #compare(Object, Object)} would pass, without paying for the error message when it wouldn't
+     */
+    public boolean matches(Object actual, Object expected) {
+        return predicate.test(actual, expected);
+    }
+
     public static Comparison parse(String value) {
         return Stream.of(values())
                 .filter(comparison -> value != null && comparison.titles.stream().anyMatch(value::matches))
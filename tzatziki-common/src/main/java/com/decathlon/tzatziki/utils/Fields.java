@@ -3,14 +3,15 @@ package com.decathlon.tzatziki.utils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.decathlon.tzatziki.utils.Unchecked.rethrow;
 import static com.decathlon.tzatziki.utils.Unchecked.unchecked;
-import static java.util.Collections.synchronizedMap;
 import static org.burningwave.core.assembler.StaticComponentContainer.Modules;
 
 
@@ -21,7 +22,13 @@ import static org.burningwave.core.assembler.StaticComponentContainer.Modules;
 @Slf4j
 public final class Fields {
 
-    private static final Map<Class<?>, Map<String, Field>> CACHE = synchronizedMap(new HashMap<>());
+    // the fields of each class, computed once and never modified so that they can be read without locking
+    private static final ClassValue<Map<String, Field>> CACHE = new ClassValue<>() {
+        @Override
+        protected Map<String, Field> computeValue(Class<?> type) {
+            return recursivelyCacheFieldsOf(type);
+        }
+    };
 
     private Fields() {
     }
@@ -54,12 +61,28 @@ public final class Fields {
         }
     }
 
+    /**
+     * @return a function reading the given field on its argument, which is ignored if the field is static
+     */
+    public static Function<Object, Object> getterOf(Field field) {
+        // the accessors generated by the JDK for core reflection are already faster than a method handle held in a cache
+        return host -> getValue(host, field);
+    }
+
+    /**
+     * @return a consumer writing the given value to the given field of its first argument, which is ignored if the field
+     * is static
+     */
+    public static BiConsumer<Object, Object> setterOf(Field field) {
+        return (host, value) -> setValue(host, field, value);
+    }
+
     public static Field getField(Class<?> clazz, String name) {
         return byName(clazz).get(name);
     }
 
     public static Map<String, Field> byName(Class<?> clazz) {
-        return CACHE.computeIfAbsent(clazz, k -> recursivelyCacheFieldsOf(clazz));
+        return CACHE.get(clazz);
     }
 
     public static <E> Stream<Field> of(E instance) {
@@ -70,10 +93,10 @@ public final class Fields {
         return byName(clazz).values().stream();
     }
 
-    private static synchronized Map<String, Field> recursivelyCacheFieldsOf(Class<?> clazz) {
-        Map<String, Field> fields = synchronizedMap(new LinkedHashMap<>());
+    private static Map<String, Field> recursivelyCacheFieldsOf(Class<?> clazz) {
+        Map<String, Field> fields = new LinkedHashMap<>();
         recursivelyCacheFieldsOf(clazz, fields);
-        return fields;
+        return Collections.unmodifiableMap(fields);
     }
 
     private static void recursivelyCacheFieldsOf(Class<?> clazz, Map<String, Field> fields) {
@@ -7,59 +7,74 @@ import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Matchers {
 
+    /**
+     * Matches with the exception-free comparison of {@link Asserts}, the failing assertion is only replayed to describe
+     * the last mismatch.
+     */
     private static class ThrowableMatcher<E> extends BaseMatcher<E> {
 
+        private final Predicate<Object> matchFunction;
         private final Consumer<Object> assertFunction;
-        private Throwable throwable;
+        private Object mismatch;
+        private boolean mismatched;
 
-        protected ThrowableMatcher(Consumer<Object> assertFunction) {
+        protected ThrowableMatcher(Predicate<Object> matchFunction, Consumer<Object> assertFunction) {
+            this.matchFunction = matchFunction;
             this.assertFunction = assertFunction;
         }
 
         @Override
         public boolean matches(Object actual) {
             try {
-                assertFunction.accept(actual);
+                if (matchFunction.test(actual)) {
+                    return true;
+                }
             } catch (Throwable throwable) {
-                this.throwable = throwable;
-                return false;
+                // the assertion will fail the same way when describing the mismatch
             }
-            return true;
+            mismatch = actual;
+            mismatched = true;
+            return false;
         }
 
         @Override
         public void describeTo(Description description) {
-            if (throwable != null) {
-                description.appendText(throwable.getMessage());
+            if (mismatched) {
+                try {
+                    assertFunction.accept(mismatch);
+                } catch (Throwable throwable) {
+                    description.appendText(throwable.getMessage());
+                }
             }
         }
     }
 
     public static Matcher<Object> equalsInOrder(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.equalsInOrder(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesEquals(actual, expected, true), actual -> Asserts.equalsInOrder(actual, expected));
     }
 
     public static Matcher<Object> equalsInAnyOrder(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.equalsInAnyOrder(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesEquals(actual, expected, false), actual -> Asserts.equalsInAnyOrder(actual, expected));
     }
 
     public static Matcher<Object> containsOnly(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.containsOnly(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesContains(actual, expected, true, false), actual -> Asserts.containsOnly(actual, expected));
     }
 
     public static Matcher<Object> containsOnlyInOrder(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.containsOnlyInOrder(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesContains(actual, expected, true, true), actual -> Asserts.containsOnlyInOrder(actual, expected));
     }
 
     public static Matcher<Object> contains(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.contains(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesContains(actual, expected, false, false), actual -> Asserts.contains(actual, expected));
     }
 
     public static Matcher<Object> containsInOrder(String expected) {
-        return new ThrowableMatcher<>(actual -> Asserts.containsInOrder(actual, expected));
+        return new ThrowableMatcher<>(actual -> Asserts.matchesContains(actual, expected, false, true), actual -> Asserts.containsInOrder(actual, expected));
     }
 }
@@ -3,15 +3,21 @@ package com.decathlon.tzatziki.utils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ClassUtils;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.decathlon.tzatziki.utils.Unchecked.unchecked;
-import static java.util.Collections.synchronizedMap;
 import static java.util.Optional.ofNullable;
 import static org.burningwave.core.assembler.StaticComponentContainer.Modules;
 
@@ -19,25 +25,44 @@ import static org.burningwave.core.assembler.StaticComponentContainer.Modules;
 @SuppressWarnings("java:S3011") // Allow reflective access to fields & methods
 public final class Methods {
 
-    private static final Map<Class<?>, Map<String, Method>> METHOD_CACHE = synchronizedMap(new HashMap<>());
+    // the methods of each class, computed once and never modified so that they can be read without locking
+    private static final ClassValue<Map<String, Method>> METHOD_CACHE = new ClassValue<>() {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> type) {
+            return recursivelyFindAllMethodsOf(type);
+        }
+    };
+    // the methods found for each signature looked up on each class, and the signatures that matched no method
+    private static final ClassValue<Map<Signature, Method>> FOUND = new ClassValue<>() {
+        @Override
+        protected Map<Signature, Method> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final ClassValue<Set<Signature>> NOT_FOUND = new ClassValue<>() {
+        @Override
+        protected Set<Signature> computeValue(Class<?> type) {
+            return ConcurrentHashMap.newKeySet();
+        }
+    };
 
     private Methods() {
     }
 
     public static Map<String, Method> byName(Class<?> clazz) {
-        return METHOD_CACHE.computeIfAbsent(clazz, Methods::recursivelyFindAllMethodsOf);
+        return METHOD_CACHE.get(clazz);
     }
 
     private static Map<String, Method> recursivelyFindAllMethodsOf(Class<?> clazz) {
-        Map<String, Method> methods = synchronizedMap(new LinkedHashMap<>());
-        recursivelyFindAllMethodsOf(clazz, methods);
-        return methods;
+        Map<String, Method> methods = new LinkedHashMap<>();
+        recursivelyFindAllMethodsOf(clazz, methods, new HashSet<>());
+        return Collections.unmodifiableMap(methods);
     }
 
-    private static synchronized void recursivelyFindAllMethodsOf(Class<?> clazz, Map<String, Method> methods) {
+    private static void recursivelyFindAllMethodsOf(Class<?> clazz, Map<String, Method> methods, Set<Method> found) {
         Stream.of(clazz.getDeclaredMethods())
                 .filter(method -> clazz.isAnnotation() || !Modifier.isAbstract(method.getModifiers()))
-                .filter(method -> !methods.containsValue(method))
+                .filter(found::add)
                 .forEach(method -> {
                     try {
                         method.setAccessible(true);
@@ -48,8 +73,8 @@ public final class Methods {
                     }
                     methods.put(getMethodSignature(clazz, method.getName(), method.getParameterTypes()), method);
                 });
-        ofNullable(clazz.getSuperclass()).ifPresent(superClass -> recursivelyFindAllMethodsOf(superClass, methods));
-        Stream.of(clazz.getInterfaces()).forEach(interfaceClass -> recursivelyFindAllMethodsOf(interfaceClass, methods));
+        ofNullable(clazz.getSuperclass()).ifPresent(superClass -> recursivelyFindAllMethodsOf(superClass, methods, found));
+        Stream.of(clazz.getInterfaces()).forEach(interfaceClass -> recursivelyFindAllMethodsOf(interfaceClass, methods, found));
     }
 
     @SuppressWarnings("unchecked")
@@ -80,6 +105,51 @@ public final class Methods {
         return (R) unchecked(() -> getMethod(clazz, name, parameterTypes).invoke(instance, parameters));
     }
 
+    /**
+     * @return a function invoking the given method without parameters on its argument, which is ignored if the method
+     * is static
+     */
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> getterOf(Method method) {
+        Function<Object, Object> getter = (Function<Object, Object>) generate(method, Function.class, "apply", MethodType.genericMethodType(1));
+        return getter != null ? getter : instance -> invokeUnchecked(instance, method);
+    }
+
+    /**
+     * @return a consumer invoking the given method with one parameter on its first argument, which is ignored if the
+     * method is static, and its second argument as parameter. The value returned by the method is dropped.
+     */
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> setterOf(Method method) {
+        BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) generate(method, BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class));
+        return setter != null ? setter : (instance, value) -> invokeUnchecked(instance, method, value);
+    }
+
+    /**
+     * Spins a lambda implementing the given functional interface by calling the given instance method, which the JIT
+     * can inline unlike a call through core reflection or a method handle held in a cache.
+     *
+     * @return the lambda, or null if the method is static or can't be accessed from here
+     */
+    private static Object generate(Method method, Class<?> functionalInterface, String name, MethodType erasedType) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != erasedType.parameterCount() - 1) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle implementation = lookup.unreflect(method);
+            MethodType instantiatedType = implementation.type().wrap();
+            if (erasedType.returnType() == void.class) {
+                instantiatedType = instantiatedType.changeReturnType(void.class);
+            }
+            return LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(functionalInterface), erasedType, implementation, instantiatedType)
+                    .getTarget().invoke();
+        } catch (Throwable e) {
+            log.debug("couldn't generate an accessor for {}, using reflection instead", method, e);
+            return null;
+        }
+    }
+
     public static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
         return unchecked(() -> findMethod(clazz, name, parameterTypes)
                 .orElseThrow(() -> new NoSuchMethodException("method '" + name + "' doesn't exist on " + clazz))
@@ -87,12 +157,25 @@ public final class Methods {
     }
 
     public static Optional<Method> findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
-        return ofNullable(byName(clazz).computeIfAbsent(
-                getMethodSignature(clazz, name, parameterTypes),
-                methodSignature -> byName(clazz).values().stream()
-                        .filter(method -> isApplicableMethod(method, name, parameterTypes))
-                        .findFirst().orElse(null))
-        );
+        Signature signature = new Signature(name, parameterTypes);
+        Method method = FOUND.get(clazz).get(signature);
+        if (method != null || NOT_FOUND.get(clazz).contains(signature)) {
+            return ofNullable(method);
+        }
+        // the types given by the caller might be changed after the lookup
+        signature = new Signature(name, parameterTypes.clone());
+        method = byName(clazz).get(getMethodSignature(clazz, name, parameterTypes));
+        if (method == null) {
+            method = byName(clazz).values().stream()
+                    .filter(candidate -> isApplicableMethod(candidate, name, parameterTypes))
+                    .findFirst().orElse(null);
+        }
+        if (method == null) {
+            NOT_FOUND.get(clazz).add(signature);
+        } else {
+            FOUND.get(clazz).put(signature, method);
+        }
+        return ofNullable(method);
     }
 
     public static List<Method> findMethodByNameAndNumberOfArgs(Class<?> clazz, String name, int argsCount) {
@@ -124,4 +207,19 @@ public final class Methods {
     private static String getMethodSignature(Class<?> clazz, String name, Class<?>[] parameterTypes) {
         return clazz.getCanonicalName() + "." + name + Arrays.toString(parameterTypes);
     }
+
+    private record Signature(String name, Class<?>[] parameterTypes) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature signature
+                    && name.equals(signature.name)
+                    && Arrays.equals(parameterTypes, signature.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + Arrays.hashCode(parameterTypes);
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.decathlon.tzatziki.utils;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the state that belongs to the scenario running on the current thread, so that scenarios executed in parallel
+ * don't share their clock, their timeouts or their pending async steps.
+ * <p>
+ * A context is bound to the thread running the scenario by {@link #start(String)} and released by {@link #end()}.
+ * Threads that are not bound to a scenario (static initializers, unit tests, application threads...) share a single
+ * global context, which gives back the behaviour of a plain static field when scenarios run sequentially.
+ * Work handed over to another thread on behalf of a scenario should be wrapped with {@link #wrap(Runnable)} so that it
+ * keeps seeing the context of the scenario that submitted it. The threads that work on behalf of a scenario without
+ * having been submitted by it, like the ones of the tested application serving a request sent by a step, can look the
+ * context up with {@link #running(String)} and {@link #bind()} it.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ScenarioContext {
+
+    private static final ScenarioContext GLOBAL = new ScenarioContext("global");
+    private static final ThreadLocal<ScenarioContext> CURRENT = new ThreadLocal<>();
+    private static final Map<String, ScenarioContext> RUNNING = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String id;
+    private final Map<Key<?>, Object> values = new ConcurrentHashMap<>();
+
+    /**
+     * @return the context of the scenario bound to the current thread, or the global one if there is none
+     */
+    public static ScenarioContext current() {
+        ScenarioContext context = CURRENT.get();
+        return context != null ? context : GLOBAL;
+    }
+
+    /**
+     * @return true if the current thread is bound to a scenario
+     */
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Binds a new, empty context to the current thread.
+     *
+     * @param id an identifier for the scenario, under which the context can be found with {@link #running(String)}
+     *           until the scenario ends
+     * @return the new context
+     */
+    public static ScenarioContext start(String id) {
+        ScenarioContext context = new ScenarioContext(id);
+        CURRENT.set(context);
+        RUNNING.put(id, context);
+        return context;
+    }
+
+    /**
+     * Unbinds the context of the current thread, which falls back to the global context.
+     */
+    public static void end() {
+        ScenarioContext context = CURRENT.get();
+        if (context != null) {
+            RUNNING.remove(context.id, context);
+        }
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the context of the running scenario started with the given id, if it isn't over yet
+     */
+    public static Optional<ScenarioContext> running(String id) {
+        return Optional.ofNullable(id).map(RUNNING::get);
+    }
+
+    public static Runnable wrap(Runnable runnable) {
+        ScenarioContext context = current();
+        return () -> {
+            try (Binding binding = context.bind()) {
+                runnable.run();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        return (T) values.computeIfAbsent(key, k -> k.initialValue.get());
+    }
+
+    /**
+     * @return the previous value, null if there was none. Setting a key to null restores its initial value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T set(Key<T> key, T value) {
+        return (T) (value == null ? values.remove(key) : values.put(key, value));
+    }
+
+    @Override
+    public String toString() {
+        return "ScenarioContext[" + id + "]";
+    }
+
+    /**
+     * Binds this context to the current thread until the returned binding is closed, which binds back the previous one.
+     */
+    public Binding bind() {
+        ScenarioContext previous = CURRENT.get();
+        restore(this);
+        return () -> restore(previous);
+    }
+
+    private static void restore(ScenarioContext context) {
+        if (context == null || context == GLOBAL) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A typed slot in a {@link ScenarioContext}. Keys are compared by identity, so they are meant to be kept in static
+     * fields. The initial value is created lazily the first time the key is read in a given context, and may be null.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Key<T> {
+        private final String name;
+        private final Supplier<T> initialValue;
+
+        public static <T> Key<T> of(String name, Supplier<T> initialValue) {
+            return new Key<>(name, initialValue);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
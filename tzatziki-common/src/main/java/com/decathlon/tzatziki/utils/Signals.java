@@ -0,0 +1,65 @@
+package com.decathlon.tzatziki.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets the components observing the system under test (the HTTP mocks, the Kafka listeners, the log appenders...) tell
+ * the assertions waiting for a change that something happened, so that they are evaluated again right away instead of
+ * at their next poll. Signaling is optional: the waiting assertions keep polling when nothing signals them.
+ * <p>
+ * The signals are not targeted, an assertion woken up by an unrelated change is just evaluated one more time. Signaling
+ * only increments a counter while no assertion is waiting, the monitor is only taken to wake up the waiting ones.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Signals {
+
+    private static final Object MONITOR = new Object();
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static final AtomicInteger WAITERS = new AtomicInteger();
+
+    /**
+     * Wakes up all the assertions waiting for a change.
+     */
+    public static void signal() {
+        GENERATION.incrementAndGet();
+        // a waiter registers itself before reading the generation, it either sees this increment or gets notified
+        if (WAITERS.get() > 0) {
+            synchronized (MONITOR) {
+                MONITOR.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the number of signals received so far, to be given to {@link #await(long, Duration)}
+     */
+    public static long generation() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Waits until a signal is received after the given generation, or until the timeout elapses.
+     *
+     * @return the current generation
+     */
+    public static long await(long since, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        WAITERS.incrementAndGet();
+        try {
+            synchronized (MONITOR) {
+                long remaining;
+                while (GENERATION.get() == since && (remaining = deadline - System.nanoTime()) > 0) {
+                    MONITOR.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+            }
+            return GENERATION.get();
+        } finally {
+            WAITERS.decrementAndGet();
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.decathlon.tzatziki.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.joestelmach.natty.Parser;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.function.BiFunction;
@@ -30,19 +36,41 @@ public class Time {
     private static final int NATTY_EXPRESSION = 1;
     private static final int ZONE_ID = 2;
     private static final int TYPE = 3;
-
-    private static Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    public static final String CACHE_SIZE = "tzatziki.time.cache-size";
+
+    // the common expressions that don't need natty
+    private static final String UNIT = "(second|minute|hour|day|week|month|year)s?";
+    private static final Pattern EPOCH_MILLIS = Pattern.compile("\\d{12,}");
+    private static final Pattern NOW_PLUS = Pattern.compile("now ?([+-]) ?(\\d+) " + UNIT, Pattern.CASE_INSENSITIVE);
+    private static final Pattern IN = Pattern.compile("in (\\d+) " + UNIT, Pattern.CASE_INSENSITIVE);
+    private static final Pattern AGO = Pattern.compile("(\\d+) " + UNIT + " (ago|from now)", Pattern.CASE_INSENSITIVE);
+
+    // natty parsers are costly to create but can't be shared between threads
+    private static final ThreadLocal<Map<ZoneId, Parser>> PARSERS = ThreadLocal.withInitial(HashMap::new);
+    // how each expression relates to the current time, so that natty only parses it once
+    private static final Cache<Expression, Resolution> RESOLUTIONS = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong(CACHE_SIZE, 10_000L))
+            .build();
+    // references with different days of the week, months, years and times of the day, compared to the current time to
+    // tell whether an expression is a fixed offset from it
+    private static final List<Long> PROBES = List.of(
+            Instant.parse("2021-02-10T03:17:41.123Z").toEpochMilli(),
+            Instant.parse("2023-08-26T19:42:05.877Z").toEpochMilli());
+
+    // the current time is scenario-scoped, outside a scenario it is fixed when first read
+    private static final ScenarioContext.Key<Instant> NOW = ScenarioContext.Key.of("time.now",
+            () -> Instant.now().truncatedTo(ChronoUnit.MILLIS));
 
     public static void setToNow() {
         set(Instant.now());
     }
 
     public static void set(Instant now) {
-        Time.now = now.truncatedTo(ChronoUnit.MILLIS);
+        ScenarioContext.current().set(NOW, now.truncatedTo(ChronoUnit.MILLIS));
     }
 
     public static Instant now() {
-        return now;
+        return ScenarioContext.current().get(NOW);
     }
 
     public static void addCustomTypeAdapter(String type, BiFunction<Date, ZoneId, ?> typeAdapter) {
@@ -60,14 +88,106 @@ public class Time {
             ZoneId zoneId = ofNullable(matcher.group(ZONE_ID)).map(ZoneId::of).orElse(ZoneId.of("UTC"));
             String type = ofNullable(matcher.group(TYPE)).orElse("instant");
 
-            Parser parser = new Parser(TimeZone.getTimeZone(zoneId));
-            Date date = parser.parse(nattyExpression, new Date(now.toEpochMilli())).get(0).getDates().get(0);
+            Date date = resolve(nattyExpression, zoneId);
 
             return (T) getTypeAdapter(type).apply(date, zoneId);
         }
         throw new IllegalArgumentException("expression: '%s' doesn't match pattern: '%s'".formatted(expression, TIME));
     }
 
+    private static Date resolve(String nattyExpression, ZoneId zoneId) {
+        long reference = now().toEpochMilli();
+        Long parsed = fastParse(nattyExpression, zoneId, reference);
+        if (parsed != null) {
+            return new Date(parsed);
+        }
+        Expression expression = new Expression(nattyExpression, zoneId);
+        Resolution resolution = Caches.get(RESOLUTIONS, expression, () -> Resolution.of(expression, reference, natty(expression, reference)));
+        return new Date(resolution.resolve(expression, reference));
+    }
+
+    /**
+     * Parses the ISO date-times, the epoch milliseconds and the simple offsets from the current time (now, now + 2 hours,
+     * in 3 days, 5 minutes ago...) without natty.
+     *
+     * @return the parsed epoch milliseconds, or null if natty is needed
+     */
+    private static Long fastParse(String value, ZoneId zoneId, long reference) {
+        if (EPOCH_MILLIS.matcher(value).matches()) {
+            return Long.parseLong(value);
+        }
+        if (value.length() > 10 && value.charAt(4) == '-' && value.charAt(10) == 'T') {
+            try {
+                TemporalAccessor dateTime = DateTimeFormatter.ISO_DATE_TIME.parseBest(value, ZonedDateTime::from, LocalDateTime::from);
+                ZonedDateTime zonedDateTime = dateTime instanceof LocalDateTime localDateTime ? localDateTime.atZone(zoneId) : (ZonedDateTime) dateTime;
+                return zonedDateTime.toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        if (value.equalsIgnoreCase("now")) {
+            return reference;
+        }
+        Matcher matcher;
+        if ((matcher = NOW_PLUS.matcher(value)).matches()) {
+            return plus(reference, zoneId, matcher.group(1).equals("-"), matcher.group(2), matcher.group(3));
+        }
+        if ((matcher = IN.matcher(value)).matches()) {
+            return plus(reference, zoneId, false, matcher.group(1), matcher.group(2));
+        }
+        if ((matcher = AGO.matcher(value)).matches()) {
+            return plus(reference, zoneId, matcher.group(3).equalsIgnoreCase("ago"), matcher.group(1), matcher.group(2));
+        }
+        return null;
+    }
+
+    private static long plus(long reference, ZoneId zoneId, boolean past, String amount, String unit) {
+        // adding days, months or years keeps the time of the day, like natty does
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(reference), zoneId)
+                .plus(Long.parseLong(amount) * (past ? -1 : 1), ChronoUnit.valueOf(unit.toUpperCase(ROOT) + "S"))
+                .toInstant().toEpochMilli();
+    }
+
+    private static long natty(Expression expression, long reference) {
+        Parser parser = PARSERS.get().computeIfAbsent(expression.zoneId(), zoneId -> new Parser(TimeZone.getTimeZone(zoneId)));
+        return parser.parse(expression.value(), new Date(reference)).get(0).getDates().get(0).getTime();
+    }
+
+    private record Expression(String value, ZoneId zoneId) {}
+
+    /**
+     * An expression is either a fixed offset from the current time (now, in 2 hours, yesterday...), a fixed instant, or
+     * anything else (tomorrow at noon, next month...) that natty needs to parse every time.
+     */
+    private record Resolution(Kind kind, long value) {
+
+        private enum Kind {RELATIVE, ABSOLUTE, NATTY}
+
+        private static Resolution of(Expression expression, long reference, long resolved) {
+            long offset = resolved - reference;
+            // a day is not always 24 hours long in the zones with daylight saving time
+            boolean relative = expression.zoneId().getRules().isFixedOffset();
+            boolean absolute = true;
+            for (long probe : PROBES) {
+                long probed = natty(expression, probe);
+                relative &= probed - probe == offset;
+                absolute &= probed == resolved;
+            }
+            if (relative) {
+                return new Resolution(Kind.RELATIVE, offset);
+            }
+            return absolute ? new Resolution(Kind.ABSOLUTE, resolved) : new Resolution(Kind.NATTY, 0);
+        }
+
+        private long resolve(Expression expression, long reference) {
+            return switch (kind) {
+                case RELATIVE -> reference + value;
+                case ABSOLUTE -> value;
+                case NATTY -> natty(expression, reference);
+            };
+        }
+    }
+
     public static BiFunction<Date, ZoneId, ?> getTypeAdapter(String type) { // NOSONAR
         return typeAdapters.computeIfAbsent(type.toLowerCase(ROOT), t -> switch (t) {
             case "instant" -> (date, zoneId) -> date.toInstant();
@@ -1,5 +1,7 @@
 package com.decathlon.tzatziki.utils;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.reflect.ClassPath;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -8,36 +10,94 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static com.decathlon.tzatziki.utils.Types.parameterized;
 import static com.decathlon.tzatziki.utils.Types.rawTypeOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Slf4j
 @SuppressWarnings("UnstableApiUsage")
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class TypeParser {
 
+    /**
+     * Comma separated list of packages to scan in addition to the default package. If none is given, the whole
+     * classpath is scanned.
+     */
+    public static final String SCANNED_PACKAGES = "tzatziki.type-parser.packages";
+    /**
+     * Path of a file where the scanned class names are persisted, and reloaded on the next run if the classpath didn't change.
+     */
+    public static final String INDEX_FILE = "tzatziki.type-parser.index-file";
+    private static final String INDEX_SCOPE_HEADER = "# scope: ";
+    private static final String INDEX_CLASSPATH_HEADER = "# classpath: ";
+
     private static final Pattern typePattern = Pattern.compile("((?:[a-z_$][a-z0-9_$]*\\.)*[A-Z_$][A-z0-9_$]*)(?:<(.*)>)?");
     private static List<ClassPath.ClassInfo> allClasses;
+    // FQCN and simple name -> matching class names, default package first
+    private static Map<String, List<String>> classesByName;
+    private static final Map<String, Boolean> HAS_CLASS = new ConcurrentHashMap<>();
     private static Reflections reflections;
     private static final Map<String, Type> KNOWN_TYPES = new LinkedHashMap<>();
+    private static final Set<String> scannedPackages = new LinkedHashSet<>();
     private static String defaultPackage = null;
 
+    static {
+        Optional.ofNullable(System.getProperty(SCANNED_PACKAGES)).ifPresent(packages -> setScannedPackages(packages.split(",")));
+    }
+
     public static String getDefaultPackage() {
         return defaultPackage;
     }
 
-    public static void setDefaultPackage(String defaultPackage) {
+    public static synchronized void setDefaultPackage(String defaultPackage) {
+        TypeParser.defaultPackage = defaultPackage;
+        reset();
+    }
+
+    /**
+     * Limits the classpath scanning to the given packages (and the default package), calling it without any package
+     * restores the scanning of the whole classpath.
+     * This makes the first lookup a lot faster on big classpaths, but classes outside of those packages will then
+     * only be found by their fully qualified name.
+     */
+    public static synchronized void setScannedPackages(String... packages) {
+        scannedPackages.clear();
+        Stream.of(packages).map(String::trim).filter(p -> !p.isEmpty()).forEach(scannedPackages::add);
+        reset();
+    }
+
+    public static synchronized Set<String> getScannedPackages() {
+        return Collections.unmodifiableSet(scannedPackages);
+    }
+
+    private static synchronized void reset() {
         KNOWN_TYPES.clear();
+        HAS_CLASS.clear();
         allClasses = null;
-        TypeParser.defaultPackage = defaultPackage;
+        classesByName = null;
+        reflections = null;
     }
 
     public static synchronized Type parse(String name) {
@@ -76,17 +136,9 @@ public class TypeParser {
             case "Boolean" -> Boolean.class;
             case "Instant" -> Instant.class;
             case "Number" -> Number.class;
-            default -> classes()
+            default -> classesNamed(n)
                     .stream()
-                    .filter(clazz -> clazz.getName().equals(n) || clazz.getSimpleName().equals(n))
-                    .map((ClassPath.ClassInfo classInfo) -> {
-                        try {
-                            // Sonar complains about unnecessary cast here, but if we remove it, the code does not compile.
-                            return (Type) classInfo.load(); // NOSONAR
-                        } catch (NoClassDefFoundError e) {
-                            return null;
-                        }
-                    })
+                    .map(TypeParser::load)
                     .filter(Objects::nonNull)
                     .findFirst()
                     .orElseGet(() -> {
@@ -100,7 +152,206 @@ public class TypeParser {
     }
 
     public static boolean hasClass(String className) {
-        return classes().stream().anyMatch(clazz -> clazz.getName().equals(className) || clazz.getSimpleName().equals(className));
+        Boolean hasClass = HAS_CLASS.get(className);
+        if (hasClass == null) {
+            // negative results are cached as well, so that a missed lookup doesn't cost a scan each time
+            hasClass = !classesNamed(className).isEmpty();
+            HAS_CLASS.put(className, hasClass);
+        }
+        return hasClass;
+    }
+
+    private static Type load(String className) {
+        try {
+            return ClassLoader.getSystemClassLoader().loadClass(className);
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+            return null;
+        }
+    }
+
+    private static List<String> classesNamed(String name) {
+        List<String> classes = classIndex().get(name);
+        if (classes == null && name.contains(".") && load(name) != null) {
+            // a fully qualified name outside the scanned packages
+            return List.of(name);
+        }
+        return classes != null ? classes : List.of();
+    }
+
+    private static synchronized Map<String, List<String>> classIndex() {
+        if (classesByName == null) {
+            Map<String, List<String>> index = new HashMap<>();
+            for (String className : sortedWithDefaultPackageFirst(classNames())) {
+                index.computeIfAbsent(className, k -> new ArrayList<>(1)).add(className);
+                String simpleName = simpleNameOf(className);
+                if (!simpleName.equals(className)) {
+                    index.computeIfAbsent(simpleName, k -> new ArrayList<>(1)).add(className);
+                }
+            }
+            classesByName = index;
+        }
+        return classesByName;
+    }
+
+    private static List<String> sortedWithDefaultPackageFirst(List<String> classNames) {
+        if (defaultPackage == null) {
+            return classNames;
+        }
+        return classNames.stream()
+                .sorted(Comparator.comparing(className -> !packageOf(className).startsWith(defaultPackage)))
+                .toList();
+    }
+
+    /**
+     * @return the names of the classes in the scanned packages, sorted by package name.
+     * They are read from the index file when there is one matching the current classpath.
+     */
+    private static List<String> classNames() {
+        Set<String> scope = scanScope();
+        Optional<Path> indexFile = Optional.ofNullable(System.getProperty(INDEX_FILE)).map(Path::of);
+        String classpathHash = indexFile.map(file -> classpathHash()).orElse(null);
+        List<String> classNames = indexFile.flatMap(file -> readIndex(file, scope, classpathHash)).orElse(null);
+        if (classNames == null) {
+            classNames = scan(scope).stream()
+                    .map(ClassPath.ClassInfo::getName)
+                    .sorted(Comparator.comparing(TypeParser::packageOf))
+                    .toList();
+            List<String> scannedClassNames = classNames;
+            indexFile.ifPresent(file -> writeIndex(file, scope, classpathHash, scannedClassNames));
+        }
+        return classNames;
+    }
+
+    private static Set<String> scanScope() {
+        if (scannedPackages.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> scope = new TreeSet<>(scannedPackages);
+        if (defaultPackage != null) {
+            scope.add(defaultPackage);
+        }
+        return scope;
+    }
+
+    @SneakyThrows
+    private static Set<ClassPath.ClassInfo> scan(Set<String> scope) {
+        if (scope.isEmpty()) {
+            return ClassPath.from(ClassLoader.getSystemClassLoader()).getAllClasses();
+        }
+        // we only open the classpath entries that actually contain the packages we are interested in
+        URL[] urls = scope.stream()
+                .flatMap(pkg -> ClasspathHelper.forPackage(pkg, ClassLoader.getSystemClassLoader()).stream())
+                .distinct()
+                .toArray(URL[]::new);
+        try (URLClassLoader scopedClassLoader = new URLClassLoader(urls, null)) {
+            Set<ClassPath.ClassInfo> classes = new LinkedHashSet<>();
+            for (ClassPath.ClassInfo classInfo : ClassPath.from(scopedClassLoader).getAllClasses()) {
+                if (scope.stream().anyMatch(pkg -> isInPackage(classInfo.getName(), pkg))) {
+                    classes.add(classInfo);
+                }
+            }
+            return classes;
+        }
+    }
+
+    private static Optional<List<String>> readIndex(Path file, Set<String> scope, String classpathHash) {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (Stream<String> lines = Files.lines(file, UTF_8)) {
+            List<String> content = lines.toList();
+            if (content.size() < 2
+                    || !content.get(0).equals(INDEX_SCOPE_HEADER + String.join(",", scope))
+                    || !content.get(1).equals(INDEX_CLASSPATH_HEADER + classpathHash)) {
+                log.debug("type index {} is outdated, rescanning the classpath", file);
+                return Optional.empty();
+            }
+            return Optional.of(content.subList(2, content.size()));
+        } catch (IOException e) {
+            log.warn("couldn't read the type index {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void writeIndex(Path file, Set<String> scope, String classpathHash, List<String> classNames) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            List<String> content = new ArrayList<>(classNames.size() + 2);
+            content.add(INDEX_SCOPE_HEADER + String.join(",", scope));
+            content.add(INDEX_CLASSPATH_HEADER + classpathHash);
+            content.addAll(classNames);
+            Files.write(file, content, UTF_8);
+        } catch (Exception e) {
+            log.warn("couldn't write the type index {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * A hash of the classpath entries and of their modification times, so that a rebuild invalidates the index.
+     */
+    private static String classpathHash() {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        Set<File> visited = new HashSet<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            hash(new File(entry), hasher, visited);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void hash(File entry, Hasher hasher, Set<File> visited) {
+        if (!visited.add(entry.getAbsoluteFile()) || !entry.exists()) {
+            return;
+        }
+        hasher.putString(entry.getAbsolutePath(), UTF_8).putLong(entry.length()).putLong(entry.lastModified());
+        if (entry.isDirectory()) {
+            // adding or removing a class changes the modification time of its directory
+            try (Stream<Path> directories = Files.walk(entry.toPath())) {
+                directories.filter(Files::isDirectory).forEach(directory -> hasher.putLong(directory.toFile().lastModified()));
+            } catch (IOException e) {
+                hasher.putLong(System.nanoTime());
+            }
+        } else if (entry.getName().endsWith(".jar")) {
+            // surefire & co. use a manifest-only jar to pass the actual classpath
+            try (JarFile jarFile = new JarFile(entry)) {
+                Manifest manifest = jarFile.getManifest();
+                String classPath = manifest != null ? manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) : null;
+                if (classPath != null) {
+                    for (String element : classPath.trim().split("\\s+")) {
+                        File file = new File(element.startsWith("file:") ? URI.create(element).getPath() : element);
+                        hash(file.isAbsolute() ? file : new File(entry.getParentFile(), element), hasher, visited);
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("couldn't read the manifest of {}: {}", entry, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isInPackage(String className, String pkg) {
+        return className.startsWith(pkg) && (className.length() == pkg.length() || className.charAt(pkg.length()) == '.');
+    }
+
+    private static String packageOf(String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot == -1 ? "" : className.substring(0, lastDot);
+    }
+
+    // same rules as ClassPath.ClassInfo::getSimpleName
+    private static String simpleNameOf(String className) {
+        int lastDollarSign = className.lastIndexOf('$');
+        if (lastDollarSign != -1) {
+            String innerClassName = className.substring(lastDollarSign + 1);
+            int start = 0;
+            while (start < innerClassName.length() && Character.isDigit(innerClassName.charAt(start))) {
+                start++;
+            }
+            return innerClassName.substring(start);
+        }
+        String packageName = packageOf(className);
+        return packageName.isEmpty() ? className : className.substring(packageName.length() + 1);
     }
 
     private static List<String> splitNames(String input) {
@@ -137,6 +388,9 @@ public class TypeParser {
         return output;
     }
 
+    /**
+     * @return all the classes of the classpath, regardless of the scanned packages
+     */
     @SneakyThrows
     public static synchronized List<ClassPath.ClassInfo> classes() {
         if (allClasses == null) {
@@ -161,7 +415,19 @@ public class TypeParser {
 
     public static synchronized <T> Set<Class<? extends T>> getSubtypesOf(Class<T> clazz) {
         if (reflections == null) {
-            reflections = new Reflections(new ConfigurationBuilder().forPackage("").setScanners(Scanners.SubTypes));
+            Set<String> scope = scanScope();
+            ConfigurationBuilder configuration = new ConfigurationBuilder().setScanners(Scanners.SubTypes);
+            if (scope.isEmpty()) {
+                configuration.forPackage("");
+            } else {
+                FilterBuilder filter = new FilterBuilder();
+                scope.forEach(pkg -> {
+                    configuration.forPackage(pkg);
+                    filter.includePackage(pkg);
+                });
+                configuration.filterInputsBy(filter);
+            }
+            reflections = new Reflections(configuration);
         }
         return reflections.getSubTypesOf(clazz);
     }
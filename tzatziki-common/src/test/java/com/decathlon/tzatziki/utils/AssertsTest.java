@@ -6,9 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
@@ -219,4 +224,114 @@ public class AssertsTest {
 
     }
 
+    @Test
+    public void matchesAgreesWithTheAssertions() {
+        List<List<Object>> cases = List.of(
+                List.of("{\"id\":1,\"name\":\"bob\"}", "{\"id\":1,\"name\":\"bob\"}"),
+                List.of("{\"id\":1,\"name\":\"bob\"}", "{\"id\":2,\"name\":\"bob\"}"),
+                List.of("{\"id\":1,\"name\":\"bob\"}", "{\"id\":1}"),
+                List.of("[{\"id\":1},{\"id\":2}]", "[{\"id\":2},{\"id\":1}]"),
+                List.of("[{\"id\":1},{\"id\":2}]", "[{\"id\":2}]"),
+                List.of("[{\"id\":2},{\"id\":2}]", "[{\"id\":1},{\"id\":2}]"),
+                List.of(Map.of("id", 12, "date", "2022-08-12T10:00:00Z"), Map.of("id", "?gt 10", "date", "?before 2023-01-01T00:00:00Z")),
+                List.of(Map.of("id", 12, "uuid", "nope"), Map.of("id", "?lt 10", "uuid", "?isUUID")),
+                List.of("2022-08-12T10:00:00", "2022-08-12T10:00:00.000"),
+                List.of("abc", "?e a.c"),
+                List.of("abc", "?gt 2"));
+
+        cases.forEach(values -> Stream.of(Comparison.values()).forEach(comparison -> {
+            Object actual = values.get(0);
+            Object expected = values.get(1);
+            boolean passes;
+            try {
+                comparison.compare(actual, expected);
+                passes = true;
+            } catch (AssertionError e) {
+                passes = false;
+            }
+            Assertions.assertEquals(passes, comparison.matches(actual, expected), comparison + " " + values);
+        }));
+    }
+
+    @Test
+    public void customFlagsOverrideTheBuiltInPredicates() {
+        Asserts.addFlag("doesNotContain", (actual, expected) -> org.junit.jupiter.api.Assertions.assertEquals("overridden", actual));
+        try {
+            Assertions.assertTrue(Asserts.matchesEquals("overridden", "?doesNotContain overridden", false));
+            Assertions.assertFalse(Asserts.matchesEquals("other", "?doesNotContain overridden", false));
+        } finally {
+            Asserts.addFlag("doesNotContain", (actual, expected) -> org.assertj.core.api.Assertions.assertThat(actual).doesNotContain(expected));
+        }
+    }
+
+    @Test
+    public void unorderedComparisonOfLargeLists() {
+        List<Map<String, Object>> actual = new ArrayList<>(IntStream.range(0, 500)
+                .mapToObj(i -> Map.<String, Object>of("id", i, "name", "user " + i, "group", i % 7))
+                .toList());
+        List<Map<String, Object>> expected = actual.stream()
+                .map(row -> Map.<String, Object>of("id", row.get("id"), "name", "?e user \\d+", "group", row.get("group").toString()))
+                .collect(Collectors.toList());
+        Collections.shuffle(expected, new Random(0));
+
+        Asserts.equals(actual, expected, false);
+        Asserts.contains(actual, expected.subList(0, 100));
+        Assertions.assertTrue(Asserts.matchesContains(actual, expected, true, false));
+
+        expected.set(0, Map.of("id", 1000, "name", "user 1000", "group", 6));
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> Asserts.equals(actual, expected, false))
+                .withMessageContaining("1000");
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> Asserts.contains(actual, expected))
+                .withMessageContaining("1000");
+    }
+
+    @Test
+    public void anElementWithAnotherSizeEndsTheUnorderedComparison() {
+        for (int size : List.of(3, 50)) {
+            List<Map<String, Object>> actual = new ArrayList<>();
+            actual.add(Map.of("id", 0, "name", "user 0", "group", 0));
+            IntStream.range(1, size).forEach(i -> actual.add(Map.of("id", i, "name", "user " + i)));
+            List<Map<String, Object>> expected = new ArrayList<>(actual.subList(1, size));
+            expected.add(actual.get(0));
+
+            // the first expected element is compared with the first actual one, which ends the comparison even though a
+            // later element is equal to it
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> Asserts.equals(actual, expected, false))
+                    .withMessageContaining("doesn't have the same size than");
+            Assertions.assertFalse(Asserts.matchesEquals(actual, expected, false));
+        }
+    }
+
+    @Test
+    public void compiledExpectationsAreReusedAndFollowTheNewFlags() {
+        String expected = """
+                id: 1
+                name: "?isTheBoss"
+                """;
+        Asserts.addFlag("isTheBoss", (actual, ignored) -> org.junit.jupiter.api.Assertions.assertEquals("bob", actual));
+        Assertions.assertTrue(Asserts.matchesEquals(Map.of("id", 1, "name", "bob"), expected, false));
+        Assertions.assertTrue(Asserts.matchesEquals(Map.of("id", 1, "name", "bob"), expected, false));
+        Assertions.assertFalse(Asserts.matchesEquals(Map.of("id", 1, "name", "alice"), expected, false));
+
+        Asserts.addFlag("isTheBoss", (actual, ignored) -> org.junit.jupiter.api.Assertions.assertEquals("alice", actual));
+        Asserts.equals(Map.of("id", 1, "name", "alice"), expected);
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> Asserts.equals(Map.of("id", 1, "name", "bob"), expected))
+                .withMessageContaining("expected: <alice> but was: <bob>");
+    }
+
+    @Test
+    public void aRegularExpressionFlagWithoutPatternFailsTheAssertion() {
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> Asserts.equals("abc", "?e"))
+                .withMessageContaining("The regular expression pattern to match should not be null");
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> Asserts.equals("[]", "?e"))
+                .withMessageContaining("The regular expression pattern to match should not be null");
+        Assertions.assertFalse(Asserts.matchesEquals("abc", "?e", false));
+    }
+
 }
@@ -40,4 +40,11 @@ class MatchersTest {
     void failing() {
         Assertions.assertThatThrownBy(() -> MatcherAssert.assertThat("[1,2,3]", Matchers.contains("[4,1]"))).isInstanceOf(AssertionError.class);
     }
+
+    @Test
+    void failingDescribesTheMismatch() {
+        Assertions.assertThatThrownBy(() -> MatcherAssert.assertThat("{\"id\":1}", Matchers.equalsInOrder("{\"id\":2}")))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("id' -> expected: <2> but was: <1>");
+    }
 }
@@ -0,0 +1,53 @@
+package com.decathlon.tzatziki.utils;
+
+import com.decathlon.tzatziki.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MethodsTest {
+
+    @Test
+    public void findMethod() {
+        assertThat(Methods.findMethod(StringBuilder.class, "append", String.class))
+                .hasValueSatisfying(method -> assertThat(method.getParameterTypes()).containsExactly(String.class));
+        assertThat(Methods.findMethod(StringBuilder.class, "append", StringBuilder.class))
+                .hasValueSatisfying(method -> assertThat(method.getName()).isEqualTo("append"));
+        // the missing methods are remembered as well
+        assertThat(Methods.findMethod(User.class, "setScore", Integer.class, Integer.class)).isEmpty();
+        assertThat(Methods.findMethod(User.class, "setScore", Integer.class, Integer.class)).isEmpty();
+        assertThat(Methods.findMethod(User.class, "setScore", Integer.class)).isPresent();
+    }
+
+    @Test
+    public void gettersAndSettersUnboxAndBoxTheValues() {
+        User user = User.builder().id(1).build();
+
+        Methods.setterOf(Methods.getMethod(User.class, "setFriendly", boolean.class)).accept(user, true);
+        Methods.setterOf(Methods.getMethod(User.class, "setScore", Integer.class)).accept(user, 3);
+
+        assertThat(Methods.getterOf(Methods.getMethod(User.class, "isFriendly")).apply(user)).isEqualTo(true);
+        assertThat(Methods.getterOf(Methods.getMethod(User.class, "getScore")).apply(user)).isEqualTo(3);
+    }
+
+    @Test
+    public void gettersAndSettersFallBackToReflection() {
+        // static methods and the classes of the JDK can't have a generated accessor
+        assertThat(Methods.getterOf(Methods.getMethod(System.class, "lineSeparator")).apply(null)).isEqualTo(System.lineSeparator());
+
+        List<Object> list = new ArrayList<>(List.of("a"));
+        assertThat(Methods.getterOf(Methods.getMethod(ArrayList.class, "size")).apply(list)).isEqualTo(1);
+        Methods.setterOf(Methods.getMethod(ArrayList.class, "add", Object.class)).accept(list, "b");
+        assertThat(list).containsExactly("a", "b");
+    }
+
+    @Test
+    public void settersRethrowTheExceptionOfTheMethod() {
+        assertThatThrownBy(() -> Methods.setterOf(Methods.getMethod(StringBuilder.class, "setLength", int.class)).accept(new StringBuilder(), -1))
+                .isInstanceOf(StringIndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.decathlon.tzatziki.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScenarioContextTest {
+
+    private static final ScenarioContext.Key<String> KEY = ScenarioContext.Key.of("test", () -> "initial");
+
+    @AfterEach
+    public void end() {
+        ScenarioContext.end();
+    }
+
+    @Test
+    public void fallsBackOnTheGlobalContext() {
+        ScenarioContext global = ScenarioContext.current();
+        assertThat(global.getId()).isEqualTo("global");
+
+        ScenarioContext scenario = ScenarioContext.start("scenario");
+        assertThat(ScenarioContext.current()).isSameAs(scenario);
+
+        ScenarioContext.end();
+        assertThat(ScenarioContext.current()).isSameAs(global);
+    }
+
+    @Test
+    public void valuesAreScopedToTheirContext() {
+        ScenarioContext first = ScenarioContext.start("first");
+        first.set(KEY, "first value");
+        ScenarioContext second = ScenarioContext.start("second");
+        assertThat(second.get(KEY)).isEqualTo("initial");
+
+        second.set(KEY, "second value");
+        assertThat(first.get(KEY)).isEqualTo("first value");
+
+        assertThat(second.set(KEY, null)).isEqualTo("second value");
+        assertThat(second.get(KEY)).isEqualTo("initial");
+    }
+
+    @Test
+    public void wrappedTasksRunInTheContextThatSubmittedThem() {
+        ScenarioContext scenario = ScenarioContext.start("scenario");
+        AtomicReference<ScenarioContext> seen = new AtomicReference<>();
+
+        CompletableFuture.runAsync(ScenarioContext.wrap(() -> seen.set(ScenarioContext.current()))).join();
+        assertThat(seen.get()).isSameAs(scenario);
+
+        CompletableFuture.runAsync(() -> seen.set(ScenarioContext.current())).join();
+        assertThat(seen.get().getId()).isEqualTo("global");
+    }
+
+    @Test
+    public void runningScenariosCanBeBoundToOtherThreads() {
+        ScenarioContext scenario = ScenarioContext.start("running");
+        assertThat(ScenarioContext.running("running")).containsSame(scenario);
+        assertThat(ScenarioContext.running("unknown")).isEmpty();
+
+        AtomicReference<ScenarioContext> seen = new AtomicReference<>();
+        CompletableFuture.runAsync(() -> {
+            try (ScenarioContext.Binding binding = ScenarioContext.running("running").orElseThrow().bind()) {
+                seen.set(ScenarioContext.current());
+            }
+            assertThat(ScenarioContext.isBound()).isFalse();
+        }).join();
+        assertThat(seen.get()).isSameAs(scenario);
+
+        ScenarioContext.end();
+        assertThat(ScenarioContext.running("running")).isEmpty();
+    }
+
+    @Test
+    public void timeAndTimeOutAreScenarioScoped() {
+        ScenarioContext.start("first");
+        Time.set(Instant.parse("2020-01-01T00:00:00Z"));
+        ScenarioContext.start("second");
+        Time.set(Instant.parse("2021-01-01T00:00:00Z"));
+
+        Asserts.withTimeOut(Duration.ofMillis(200), () -> {
+            assertThat(Asserts.timeOut()).isEqualTo(Duration.ofMillis(200));
+            CompletableFuture.runAsync(ScenarioContext.wrap(() -> assertThat(Time.now()).isEqualTo("2021-01-01T00:00:00Z"))).join();
+            Asserts.awaitUntilAsserted(() -> assertThat(Time.now()).isEqualTo("2021-01-01T00:00:00Z"));
+        });
+        assertThat(Asserts.timeOut()).isEqualTo(Asserts.defaultTimeOut);
+    }
+}
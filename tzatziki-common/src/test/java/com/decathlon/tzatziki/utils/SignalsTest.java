@@ -0,0 +1,71 @@
+package com.decathlon.tzatziki.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SignalsTest {
+
+    @Test
+    public void awaitReturnsOnTheNextSignal() throws InterruptedException {
+        long generation = Signals.generation();
+        CompletableFuture.runAsync(Signals::signal, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        assertThat(Signals.await(generation, Duration.ofSeconds(10))).isGreaterThan(generation);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void awaitReturnsAtOnceIfASignalWasMissed() throws InterruptedException {
+        long generation = Signals.generation();
+        Signals.signal();
+        assertThat(Signals.await(generation, Duration.ofSeconds(10))).isGreaterThan(generation);
+    }
+
+    @Test
+    public void awaitingAssertionsAreEvaluatedAgainWhenSignaled() {
+        Asserts.withPollInterval(Duration.ofSeconds(30), () -> {
+            AtomicBoolean changed = new AtomicBoolean();
+            CompletableFuture.runAsync(() -> {
+                changed.set(true);
+                Signals.signal();
+            }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+            long start = System.nanoTime();
+            Asserts.awaitUntil(changed::get, Duration.ofSeconds(20));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        });
+        assertThat(Asserts.pollInterval()).isEqualTo(Asserts.defaultPollInterval);
+    }
+
+    @Test
+    public void aBurstOfSignalsIsCoalesced() {
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Void> burst = CompletableFuture.runAsync(() -> {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() < end) {
+                Signals.signal();
+            }
+            done.set(true);
+            Signals.signal();
+        });
+
+        AtomicInteger evaluations = new AtomicInteger();
+        long start = System.nanoTime();
+        Asserts.withPollInterval(Duration.ofSeconds(30), () -> Asserts.awaitUntil(() -> {
+            evaluations.incrementAndGet();
+            return done.get();
+        }, Duration.ofSeconds(20)));
+        burst.join();
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(evaluations.get()).isLessThanOrEqualTo((int) (elapsedMillis / 5) + 2);
+    }
+}
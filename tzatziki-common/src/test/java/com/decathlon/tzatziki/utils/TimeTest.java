@@ -31,6 +31,32 @@ public class TimeTest {
         Asserts.equals(Time.parse(expression), result);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "2020-11-01T00:00:00Z,                                      2020-11-01T00:00:00Z",
+            "2020-11-01T00:00:00.123Z,                                  2020-11-01T00:00:00.123Z",
+            "2020-11-01T01:00:00+01:00,                                 2020-11-01T00:00:00Z",
+            "2020-11-01T01:00:00 (Europe/Paris),                        2020-11-01T00:00:00Z",
+            "1604188800000,                                             2020-11-01T00:00:00Z",
+            "now,                                                       2021-03-27T10:15:30Z",
+            "now + 2 hours,                                             2021-03-27T12:15:30Z",
+            "now - 1 minute,                                            2021-03-27T10:14:30Z",
+            "in 3 days,                                                 2021-03-30T10:15:30Z",
+            "in 3 days (Europe/Paris),                                  2021-03-30T09:15:30Z",
+            "5 seconds ago,                                             2021-03-27T10:15:25Z",
+            "2 weeks from now,                                          2021-04-10T10:15:30Z",
+            "in 1 month as a localdate,                                 2021-04-27",
+    })
+    public void parseCommonExpressionsWithoutNatty(String expression, String result) {
+        ScenarioContext.start("time");
+        try {
+            Time.set(Instant.parse("2021-03-27T10:15:30Z"));
+            Asserts.equals(Time.parse(expression), result);
+        } finally {
+            ScenarioContext.end();
+        }
+    }
+
     @Test
     public void addCustomTypeAdapter() {
         Time.addCustomTypeAdapter("minguodate", (date, zoneId) -> MinguoDate.from(date.toInstant().atZone(zoneId).toLocalDate()));
@@ -38,4 +64,24 @@ public class TimeTest {
         Assertions.assertThat((MinguoDate) Time.parse("the first Sunday of November 2020 at midnight as a minguodate"))
                 .isEqualTo(MinguoDate.from(Instant.ofEpochMilli(1604188800000L).atZone(ZoneId.of("UTC")).toLocalDate()));
     }
+
+    @Test
+    public void cachedExpressionsFollowTheCurrentTime() {
+        ScenarioContext.start("time");
+        try {
+            Time.set(Instant.parse("2021-03-03T10:15:30Z"));
+            Assertions.assertThat((Instant) Time.parse("in 2 hours")).isEqualTo("2021-03-03T12:15:30Z");
+            Assertions.assertThat((Instant) Time.parse("tomorrow at noon")).isEqualTo("2021-03-04T12:00:00Z");
+            Assertions.assertThat((Instant) Time.parse("next monday at noon")).isEqualTo("2021-03-08T12:00:00Z");
+            Assertions.assertThat((Instant) Time.parse("2020-11-01T00:00:00Z")).isEqualTo("2020-11-01T00:00:00Z");
+
+            Time.set(Instant.parse("2022-06-18T23:00:00Z"));
+            Assertions.assertThat((Instant) Time.parse("in 2 hours")).isEqualTo("2022-06-19T01:00:00Z");
+            Assertions.assertThat((Instant) Time.parse("tomorrow at noon")).isEqualTo("2022-06-19T12:00:00Z");
+            Assertions.assertThat((Instant) Time.parse("next monday at noon")).isEqualTo("2022-06-20T12:00:00Z");
+            Assertions.assertThat((Instant) Time.parse("2020-11-01T00:00:00Z")).isEqualTo("2020-11-01T00:00:00Z");
+        } finally {
+            ScenarioContext.end();
+        }
+    }
 }
@@ -1,12 +1,17 @@
 package com.decathlon.tzatziki.utils;
 
+import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,5 +58,51 @@ public class TypeParserTest {
         assertThat(TypeParser.parse("Fields")).isEqualTo(Fields.class);
     }
 
+    @Test
+    public void testHasClass() {
+        assertThat(TypeParser.hasClass("TypeParser")).isTrue();
+        assertThat(TypeParser.hasClass("com.decathlon.tzatziki.utils.TypeParser")).isTrue();
+        assertThat(TypeParser.hasClass("ThisClassDoesNotExist")).isFalse();
+        assertThat(TypeParser.hasClass("ThisClassDoesNotExist")).isFalse();
+    }
+
+    @Test
+    public void testScannedPackages() {
+        try {
+            TypeParser.setScannedPackages("com.decathlon.tzatziki");
+            assertThat(TypeParser.hasClass("TypeParser")).isTrue();
+            assertThat(TypeParser.hasClass("ImmutableMap")).isFalse();
+            assertThat(TypeParser.parse("com.google.common.collect.ImmutableMap")).isEqualTo(ImmutableMap.class);
+        } finally {
+            TypeParser.setScannedPackages();
+        }
+        assertThat(TypeParser.hasClass("ImmutableMap")).isTrue();
+    }
+
+    @Test
+    public void testIndexFile() throws IOException {
+        Path indexFile = Files.createTempDirectory("tzatziki").resolve("types.idx");
+        System.setProperty(TypeParser.INDEX_FILE, indexFile.toString());
+        try {
+            TypeParser.setScannedPackages("com.decathlon.tzatziki");
+            assertThat(TypeParser.parse("TypeParser")).isEqualTo(TypeParser.class);
+            assertThat(indexFile).exists();
+            assertThat(Files.readAllLines(indexFile)).contains(TypeParser.class.getName());
+
+            // the next lookups are served from the index
+            Files.write(indexFile, List.of("com.decathlon.tzatziki.utils.OnlyInTheIndex"), StandardOpenOption.APPEND);
+            TypeParser.setScannedPackages("com.decathlon.tzatziki");
+            assertThat(TypeParser.hasClass("OnlyInTheIndex")).isTrue();
+
+            // but an index with another scope is ignored
+            TypeParser.setScannedPackages("com.decathlon.tzatziki.utils");
+            assertThat(TypeParser.hasClass("OnlyInTheIndex")).isFalse();
+            assertThat(Files.readAllLines(indexFile).get(0)).isEqualTo("# scope: com.decathlon.tzatziki.utils");
+        } finally {
+            System.clearProperty(TypeParser.INDEX_FILE);
+            TypeParser.setScannedPackages();
+        }
+    }
+
 
 }
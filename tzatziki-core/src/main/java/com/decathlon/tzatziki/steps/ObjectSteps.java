@@ -4,8 +4,12 @@ import com.decathlon.tzatziki.utils.*;
 import com.github.jknack.handlebars.EscapingStrategy;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Template;
 import com.github.jknack.handlebars.helper.ConditionalHelpers;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import edu.utexas.tacc.MathHelper;
 import io.cucumber.core.backend.TestCaseState;
 import io.cucumber.core.eventbus.EventBus;
@@ -24,16 +28,15 @@ import io.cucumber.messages.types.TableRow;
 import io.cucumber.plugin.event.TestSourceParsed;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Assumptions;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Proxy;
@@ -43,7 +46,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -59,7 +63,6 @@ import static com.decathlon.tzatziki.utils.Comparison.IS_COMPARED_TO;
 import static com.decathlon.tzatziki.utils.Fields.*;
 import static com.decathlon.tzatziki.utils.Guard.GUARD;
 import static com.decathlon.tzatziki.utils.Methods.findMethod;
-import static com.decathlon.tzatziki.utils.Methods.invoke;
 import static com.decathlon.tzatziki.utils.Patterns.*;
 import static com.decathlon.tzatziki.utils.Time.TIME;
 import static com.decathlon.tzatziki.utils.Types.wrap;
@@ -82,6 +85,34 @@ public class ObjectSteps {
     public static final Pattern LIST = Pattern.compile("(.+)\\[(\\d+)]");
     public static final Pattern SUBSTRING = Pattern.compile("(.+)\\[(\\d+)-(\\d*)]");
     public static final Pattern INLINE_VARIABLE = Pattern.compile(VARIABLE + ": (.*)");
+    public static final String TEMPLATE_CACHE_SIZE = "tzatziki.templates.cache-size";
+    public static final String PATH_CACHE_SIZE = "tzatziki.paths.cache-size";
+
+    // compiled templates are immutable and can be applied concurrently, we only need to parse each source once
+    private static final Cache<String, Template> TEMPLATES = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong(TEMPLATE_CACHE_SIZE, 10_000L))
+            .recordStats()
+            .build();
+
+    // the property paths are only split and matched against LIST, SUBSTRING... once
+    private static final Cache<String, PropertyPath> PATHS = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong(PATH_CACHE_SIZE, 10_000L))
+            .build();
+    // how each class exposes each of its properties, resolved on first access
+    private static final ClassValue<Map<String, Function<Object, Object>>> GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final ClassValue<Map<Setter, BiConsumer<Object, Object>>> SETTERS = new ClassValue<>() {
+        @Override
+        protected Map<Setter, BiConsumer<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final Function<Object, Object> NO_GETTER = host -> null;
+    private static final BiConsumer<Object, Object> NO_SETTER = (host, value) -> {};
 
     @SuppressWarnings("UnstableApiUsage")
     public static final Handlebars handlebars = new Handlebars()
@@ -139,7 +170,7 @@ public class ObjectSteps {
                 return options.fn(collectionsToConcat.stream().flatMap(Collection::stream).toList());
             })
             // We don't need Sonar to check this line as the input data is trusted (it's coming from the feature file itself)
-            .registerHelper("noIndent", (str, options) -> options.handlebars.compileInline(str.toString().replaceAll("(?m)(?:^\\s+|\\s+$)", "").replace("\n", "")).apply(options.context)); // NOSONAR
+            .registerHelper("noIndent", (str, options) -> compile(str.toString().replaceAll("(?m)(?:^\\s+|\\s+$)", "").replace("\n", "")).apply(options.context)); // NOSONAR
 
     static {
         register(Type.class, TypeParser::parse);
@@ -155,7 +186,7 @@ public class ObjectSteps {
         register(short.class, value -> ofNullable(value).map(Short::parseShort).orElse((short) 0));
         register(byte.class, value -> ofNullable(value).map(Byte::parseByte).orElse((byte) 0));
         register(Number.class, value -> ofNullable(value)
-                .map(s -> s.matches("\\d+") ? (Number) Integer.parseInt(s) : (Number) Double.parseDouble(s))
+                .map(s -> matches(s, "\\d+") ? (Number) Integer.parseInt(s) : (Number) Double.parseDouble(s))
                 .orElse(0));
     }
 
@@ -193,6 +224,11 @@ public class ObjectSteps {
         return Methods.invokeUnchecked(context, method, args);
     });
 
+    @Before(order = Integer.MIN_VALUE)
+    public void startScenarioContext(Scenario scenario) {
+        ScenarioContext.start(scenario.getId());
+    }
+
     @Before(order = 1)
     public void before(Scenario scenario) {
         Time.setToNow();
@@ -228,6 +264,11 @@ public class ObjectSteps {
         Guard.awaitAsyncSteps();
     }
 
+    @After(order = Integer.MIN_VALUE)
+    public void endScenarioContext() {
+        ScenarioContext.end();
+    }
+
     private Map<String, String> getExamples(Scenario scenario) {
         try {
             TestCaseState delegate = getValue(scenario, "delegate");
@@ -293,8 +334,8 @@ public class ObjectSteps {
         Map<String, Object> parameters = parametersStr == null ? Collections.emptyMap() : Mapper.read(toString(parametersStr), Map.class);
         parameters.replaceAll((key, value) -> resolve(value));
 
-        Optional<Method> methodOpt = Methods.findMethodByParameterNames(hostClass, methodName, parameters.keySet());
-        Object methodOutput = methodOpt.isPresent() ? invokeMethodByParameterNames(host, methodOpt.get(), parameters)
+        Overload overload = Overload.byParameterNames(hostClass, methodName, parameters.keySet());
+        Object methodOutput = overload != null ? overload.invokeByParameterNames(host, parameters)
                 : invokeMethodByParameterCountAndType(host, hostClass, methodName, parameters);
 
         add("_method_output", methodOutput);
@@ -309,56 +350,99 @@ public class ObjectSteps {
         return callMethodWithReturn(host, host.getClass(), methodName, parametersStr);
     }
 
-    private Object invokeMethodByParameterCountAndType(Object host, Class<?> targetClass, String methodName, Map<String, Object> parameters) {
-        int parameterCount = parameters.size();
-        List<Method> eligibleMethodsWithoutParamTypeCheck = Methods.findMethodByNameAndNumberOfArgs(targetClass, methodName, parameterCount);
-        List<Object> rawParameters = parameters.values().stream().toList();
-
-        AtomicReference<Object[]> parsedParametersReference = new AtomicReference<>();
-        Method methodToInvoke = findEligibleMethodWithParamCheck(parameterCount, eligibleMethodsWithoutParamTypeCheck, rawParameters, parsedParametersReference);
-
-        return Methods.invokeUnchecked(host, methodToInvoke, parsedParametersReference.get());
-    }
-
-    private static Method findEligibleMethodWithParamCheck(int parameterCount, List<Method> eligibleMethods, List<Object> rawParametersStr, AtomicReference<Object[]> parsedParametersReference) {
-        return eligibleMethods.stream()
-                .sorted(Comparator.<Method>comparingLong(method -> Arrays.stream(method.getParameterTypes())
-                        .filter(Class.class::equals)
-                        .count()).reversed()
-                        // Add deterministic secondary sorting to ensure consistent behavior across JVM versions
-                        .thenComparing(method -> {
-                            // Prefer methods with more specific parameter types (primitives over Object types)
-                            long primitiveCount = Arrays.stream(method.getParameterTypes())
-                                    .filter(Class::isPrimitive)
-                                    .count();
-                            return -primitiveCount; // Negative for descending order
-                        })
-                        .thenComparing(Method::toGenericString)) // Final tiebreaker for deterministic ordering
-                .filter(method -> {
-            List<Parameter> methodParameters = Arrays.stream(method.getParameters()).toList();
-            try {
-                parsedParametersReference.set(IntStream.range(0, parameterCount).boxed()
-                        .map(idx -> {
-                            Object rawParameter = rawParametersStr.get(idx);
-                            Class<?> methodParameterType = methodParameters.get(idx).getType();
-                            return wrap(rawParameter.getClass()) == wrap(methodParameterType) ? rawParameter : Mapper.read((String) rawParameter, methodParameterType);
-                        })
-                        .toArray(Object[]::new));
-                return true;
-            } catch (Exception e) {
-                return false;
+    private static Object invokeMethodByParameterCountAndType(Object host, Class<?> targetClass, String methodName, Map<String, Object> parameters) {
+        Object[] rawParameters = parameters.values().toArray();
+        for (Overload overload : Overload.byParameterCount(targetClass, methodName, rawParameters.length)) {
+            Object[] parsedParameters = overload.parse(rawParameters);
+            if (parsedParameters != null) {
+                return Methods.invokeUnchecked(host, overload.method(), parsedParameters);
             }
-        }).findFirst().orElseThrow(() -> new AssertionError("Couldn't find method to call by parameter name or count"));
+        }
+        throw new AssertionError("Couldn't find method to call by parameter name or count");
     }
 
-    private static Object invokeMethodByParameterNames(Object host, Method method, Map<String, Object> parameters) {
-        Object[] parsedParameters = Arrays.stream(method.getParameters()).map(parameter -> {
-            Object paramValue = parameters.get(parameter.getName());
-            Class<?> methodParameterType = parameter.getType();
-            return wrap(paramValue.getClass()) == wrap(methodParameterType) ? paramValue : Mapper.read((String) paramValue, methodParameterType);
-        }).toArray(Object[]::new);
+    /**
+     * A method that can be called from a step, with the names and types of its parameters read once. The overloads
+     * matching a method call are resolved once per class, method name and parameter names or count.
+     */
+    private record Overload(Method method, String[] parameterNames, Class<?>[] parameterTypes) {
+
+        private static final ClassValue<Map<List<Object>, Optional<Overload>>> BY_PARAMETER_NAMES = new ClassValue<>() {
+            @Override
+            protected Map<List<Object>, Optional<Overload>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+        private static final ClassValue<Map<List<Object>, List<Overload>>> BY_PARAMETER_COUNT = new ClassValue<>() {
+            @Override
+            protected Map<List<Object>, List<Overload>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        private static Overload of(Method method) {
+            return new Overload(method,
+                    Stream.of(method.getParameters()).map(Parameter::getName).toArray(String[]::new),
+                    method.getParameterTypes());
+        }
+
+        /**
+         * @return the method whose parameters have the given names, or null if there is none
+         */
+        private static Overload byParameterNames(Class<?> hostClass, String methodName, Set<String> parameterNames) {
+            return BY_PARAMETER_NAMES.get(hostClass).computeIfAbsent(List.of(methodName, Set.copyOf(parameterNames)),
+                    key -> Methods.findMethodByParameterNames(hostClass, methodName, parameterNames).map(Overload::of)
+            ).orElse(null);
+        }
+
+        /**
+         * @return the methods with the given number of parameters, in the order they should be tried
+         */
+        private static List<Overload> byParameterCount(Class<?> hostClass, String methodName, int parameterCount) {
+            return BY_PARAMETER_COUNT.get(hostClass).computeIfAbsent(List.of(methodName, parameterCount),
+                    key -> Methods.findMethodByNameAndNumberOfArgs(hostClass, methodName, parameterCount).stream()
+                            .sorted(Comparator.<Method>comparingLong(method -> Arrays.stream(method.getParameterTypes())
+                                            .filter(Class.class::equals)
+                                            .count()).reversed()
+                                    // Add deterministic secondary sorting to ensure consistent behavior across JVM versions
+                                    .thenComparing(method -> {
+                                        // Prefer methods with more specific parameter types (primitives over Object types)
+                                        long primitiveCount = Arrays.stream(method.getParameterTypes())
+                                                .filter(Class::isPrimitive)
+                                                .count();
+                                        return -primitiveCount; // Negative for descending order
+                                    })
+                                    .thenComparing(Method::toGenericString)) // Final tiebreaker for deterministic ordering
+                            .map(Overload::of)
+                            .toList());
+        }
+
+        private Object invokeByParameterNames(Object host, Map<String, Object> parameters) {
+            Object[] parsedParameters = new Object[parameterNames.length];
+            for (int i = 0; i < parameterNames.length; i++) {
+                parsedParameters[i] = parse(parameters.get(parameterNames[i]), parameterTypes[i]);
+            }
+            return Methods.invokeUnchecked(host, method, parsedParameters);
+        }
+
+        /**
+         * @return the given parameters converted to the types of the method, or null if one of them can't be
+         */
+        private Object[] parse(Object[] rawParameters) {
+            try {
+                Object[] parsedParameters = new Object[rawParameters.length];
+                for (int i = 0; i < rawParameters.length; i++) {
+                    parsedParameters[i] = parse(rawParameters[i], parameterTypes[i]);
+                }
+                return parsedParameters;
+            } catch (Exception e) {
+                return null;
+            }
+        }
 
-        return Methods.invokeUnchecked(host, method, parsedParameters);
+        private static Object parse(Object rawParameter, Class<?> parameterType) {
+            return wrap(rawParameter.getClass()) == wrap(parameterType) ? rawParameter : Mapper.read((String) rawParameter, parameterType);
+        }
     }
 
     @Given(THAT + GUARD + VARIABLE + " is(?: called with)?(?: " + A + TYPE + ")?:$")
@@ -432,9 +516,6 @@ public class ObjectSteps {
     public void output_in(Guard guard, String sourcePath, Type type, Object sourceValue) {
         guard.in(this, () -> {
             Object value = resolvePossiblyTypedObject(type, sourceValue);
-            if (!(value instanceof String)) {
-                value = Mapper.toJson(value);
-            }
             Path resourcePath;
             try {
                 resourcePath = Paths.get(requireNonNull(requireNonNull(this.getClass().getResource("/")).toURI()));
@@ -450,7 +531,13 @@ public class ObjectSteps {
                 if (!file.getParentFile().exists()) {
                     file.getParentFile().mkdirs();
                 }
-                Files.writeString(path, (String) value);
+                if (value instanceof String content) {
+                    Files.writeString(path, content);
+                } else {
+                    try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+                        Mapper.write(value, outputStream);
+                    }
+                }
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -485,33 +572,45 @@ public class ObjectSteps {
         if (content == null) return null;
 
         if (content.contains("{{")) {
-            content = handlebars.compileInline(content).apply(dynamicContext);
+            content = compile(content).apply(dynamicContext);
         }
 
         return content;
     }
 
+    /**
+     * @return the compiled template for this source, parsed only once as long as it stays in the cache
+     */
+    public static Template compile(String template) throws IOException {
+        return Caches.get(TEMPLATES, template, () -> handlebars.compileInline(template));
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of the compiled template cache
+     */
+    public static CacheStats templateCacheStats() {
+        return TEMPLATES.stats();
+    }
+
+    public static void clearTemplateCache() {
+        TEMPLATES.invalidateAll();
+    }
+
     public void add(String name, Object value) {
         Map<String, Object> host = context;
-        if (name.contains(".")) {
-            int split = name.indexOf(".");
-            do {
-                host = (Map<String, Object>) host.computeIfAbsent(name.substring(0, split), k -> new LinkedHashMap<>());
-                name = name.substring(split + 1);
-                split = name.indexOf(".");
-            } while (split > -1);
+        PropertyPath path = PropertyPath.of(name);
+        for (Segment segment : path.hosts()) {
+            host = (Map<String, Object>) host.computeIfAbsent(segment.value(), k -> new LinkedHashMap<>());
         }
-        host.put(name, value);
+        host.put(path.property().value(), value);
     }
 
     public <E> E getHost(Object host, String property, boolean instanciateIfNotFound) {
-        int split = property.indexOf(".");
-        while (split > -1) {
-            host = getProperty(host, property.substring(0, split), instanciateIfNotFound);
-            property = property.substring(split + 1);
-            split = property.indexOf(".");
+        PropertyPath path = PropertyPath.of(property);
+        for (Segment segment : path.hosts()) {
+            host = getProperty(host, segment, instanciateIfNotFound);
         }
-        return getProperty(host, property, instanciateIfNotFound);
+        return getProperty(host, path.property(), instanciateIfNotFound);
     }
 
     public <E> E applyToHost(String hostName, boolean instanciateIfNotFound, BiFunction<Object, String, E> function) {
@@ -519,14 +618,11 @@ public class ObjectSteps {
     }
 
     public <E> E applyToHost(Object host, String hostName, boolean instanciateIfNotFound, BiFunction<Object, String, E> function) {
-        int bracket = hostName.lastIndexOf("(");
-        int split = bracket > -1 ? hostName.substring(0, bracket).lastIndexOf(".") : hostName.lastIndexOf(".");
-        if (split > -1) {
-            host = getHost(host, hostName.substring(0, split), instanciateIfNotFound);
-            hostName = hostName.substring(split + 1);
+        PropertyPath path = PropertyPath.of(hostName);
+        for (Segment segment : path.hosts()) {
+            host = getProperty(host, segment, instanciateIfNotFound);
         }
-
-        return function.apply(host, hostName);
+        return function.apply(host, path.property().value());
     }
 
     public <E> E get(String name) {
@@ -538,7 +634,12 @@ public class ObjectSteps {
     }
 
     public <E> E getOrDefault(String name, E value) {
-        return (E) ofNullable(applyToHost(name, false, (host, property) -> getProperty(host, property, false))).orElse(value);
+        PropertyPath path = PropertyPath.of(name);
+        Object host = context;
+        for (Segment segment : path.hosts()) {
+            host = getProperty(host, segment, false);
+        }
+        return (E) ofNullable(getProperty(host, path.property(), false)).orElse(value);
     }
 
     public Object resolvePossiblyTypedObject(Type type, Object value) {
@@ -575,64 +676,67 @@ public class ObjectSteps {
     }
 
     public Consumer<Object> getSetter(String name, Class<?> parameterType) {
-        return applyToHost(name, true, (host, property) -> getSetter(host, property, parameterType));
+        PropertyPath path = PropertyPath.of(name);
+        Object host = context;
+        for (Segment segment : path.hosts()) {
+            host = getProperty(host, segment, true);
+        }
+        return getSetter(host, path.property(), parameterType);
     }
 
 
     @NotNull
     public Consumer<Object> getSetter(Object host, String property, Class<?> parameterType) {
-        Matcher isList = LIST.matcher(property);
-        if (isList.matches()) {
-            List<Object> list = getProperty(host, isList.group(1), true);
+        return getSetter(host, Segment.of(property), parameterType);
+    }
+
+    @NotNull
+    private Consumer<Object> getSetter(Object host, Segment property, Class<?> parameterType) {
+        if (property.kind() == Segment.Kind.LIST) {
+            List<Object> list = getProperty(host, property.target(), true);
             if (list == null) {
                 list = new ArrayList<>();
-                getSetter(host, isList.group(1), parameterType).accept(list);
+                getSetter(host, property.target(), parameterType).accept(list);
             }
             List<Object> target = list;
-            return value -> target.set(Integer.parseInt(isList.group(2)), value);
+            return value -> target.set(property.start(), value);
         } else if (host instanceof Map map) {
-            return value -> map.put(property, value);
-        } else if (hasField(host, property)) {
-            return value -> setValue(host, property, value);
-        } else if (findMethod(host.getClass(), property, parameterType).isPresent()) {
-            return value -> invoke(host, property, value);
-        } else if (findMethod(host.getClass(), "set" + capitalize(property), parameterType).isPresent()) {
-            return value -> invoke(host, "set" + capitalize(property), value);
+            return value -> map.put(property.value(), value);
+        }
+        BiConsumer<Object, Object> setter = setter(host.getClass(), property.value(), parameterType);
+        if (setter != NO_SETTER) {
+            return value -> setter.accept(host, value);
         }
         return value -> {
-            throw new UnsupportedOperationException("Couldn't assign value %s to host %s".formatted(value, host + "." + property));
+            throw new UnsupportedOperationException("Couldn't assign value %s to host %s".formatted(value, host + "." + property.value()));
         };
     }
 
-    private <E> E getProperty(Object host, String property, boolean instanciateIfNotFound) {
+    private <E> E getProperty(Object host, Segment segment, boolean instanciateIfNotFound) {
         if (host == null) {
             return null;
         }
-        Matcher isList = LIST.matcher(property);
-        Matcher isSubString = SUBSTRING.matcher(property);
-        if (isList.matches()) {
-            host = getProperty(host, isList.group(1), instanciateIfNotFound);
+        String property = segment.value();
+        Function<Object, Object> getter;
+        if (segment.kind() == Segment.Kind.LIST) {
+            host = getProperty(host, segment.target(), instanciateIfNotFound);
             if (host != null) {
                 if (host instanceof String hostStr) {
                     host = Mapper.read(hostStr, List.class);
                 }
                 if (host instanceof List) {
-                    return (E) ((List<?>) host).get(Integer.parseInt(isList.group(2)));
+                    return (E) ((List<?>) host).get(segment.start());
                 }
                 throw new IllegalArgumentException("host is not a list but a " + host.getClass());
             }
-        } else if (isSubString.matches()) {
-            host = getProperty(host, isSubString.group(1), instanciateIfNotFound);
+        } else if (segment.kind() == Segment.Kind.SUBSTRING) {
+            host = getProperty(host, segment.target(), instanciateIfNotFound);
             if (host != null) {
                 if (!(host instanceof String)) {
                     host = Mapper.toJson(host);
                 }
-                int start = Integer.parseInt(isSubString.group(2));
-                int end = Optional.ofNullable(isSubString.group(3))
-                        .filter(StringUtils::isNotBlank)
-                        .map(Integer::parseInt)
-                        .orElse(((String) host).length());
-                return (E) ((String) host).substring(start, Math.max(((String) host).length(), end));
+                int end = segment.end() < 0 ? ((String) host).length() : segment.end();
+                return (E) ((String) host).substring(segment.start(), Math.max(((String) host).length(), end));
             }
         } else if (host instanceof Map map && (map.containsKey(property) || instanciateIfNotFound)) {
             if (map.containsKey(property)) {
@@ -642,30 +746,15 @@ public class ObjectSteps {
                 map.put(property, newMap);
                 return (E) newMap;
             }
-        } else if (property.matches(TYPE_PATTERN) && TypeParser.hasClass(property)) {
+        } else if (segment.isType() && TypeParser.hasClass(property)) {
             return (E) TypeParser.parse(property);
-        } else if (hasField(host, property)) {
-            E value = getValue(host, property);
-            if (value instanceof byte[] bytes) {
-                return (E) new String(bytes, UTF_8);
-            }
-            return value;
-        } else if (property.matches("\\w+\\(((?:[^)],?)*+)\\)")) {
-            String[] splitMethodNameAndArgs = property.split("[()]");
-            String methodName = splitMethodNameAndArgs[0];
-            String[] parameters = splitMethodNameAndArgs.length == 1 ? new String[0] : splitMethodNameAndArgs[1].split("[, ]+");
-            String parametersAsJson = Mapper.toJson(IntStream.range(0, parameters.length).boxed().collect(Collectors.toMap(Function.identity(), idx -> parameters[idx])));
-
+        } else if (segment.kind() == Segment.Kind.METHOD_CALL) {
             return host instanceof Class<?> hostClass
-                    ? callStaticMethodWithReturn(hostClass, methodName, parametersAsJson)
-                    : callInstanceMethodWithReturn(host, methodName, parametersAsJson);
-        } else if (findMethod(host.getClass(), property).isPresent()) {
-            return invoke(host, property);
-        } else if (findMethod(host.getClass(), "get" + capitalize(property)).isPresent()) {
-            return invoke(host, "get" + capitalize(property));
-        } else if (findMethod(host.getClass(), "is" + capitalize(property)).isPresent()) {
-            return invoke(host, "is" + capitalize(property));
-        } else if (property.matches("\\d+")) {
+                    ? callStaticMethodWithReturn(hostClass, segment.methodName(), segment.parametersAsJson())
+                    : callInstanceMethodWithReturn(host, segment.methodName(), segment.parametersAsJson());
+        } else if ((getter = getter(host.getClass(), property)) != NO_GETTER) {
+            return (E) getter.apply(host);
+        } else if (segment.kind() == Segment.Kind.INDEX) {
             if (host instanceof String hostStr) {
                 host = Mapper.read(hostStr, List.class);
             }
@@ -683,28 +772,109 @@ public class ObjectSteps {
         return null;
     }
 
+    /**
+     * @return the field, the property method or the accessor reading the given property, or NO_GETTER
+     */
+    private static Function<Object, Object> getter(Class<?> hostClass, String property) {
+        return GETTERS.get(hostClass).computeIfAbsent(property, name -> {
+            if (hasField(hostClass, name)) {
+                return getterOf(getField(hostClass, name)).andThen(value -> value instanceof byte[] bytes ? new String(bytes, UTF_8) : value);
+            }
+            return Stream.of(name, "get" + capitalize(name), "is" + capitalize(name))
+                    .map(methodName -> findMethod(hostClass, methodName))
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .map(Methods::getterOf)
+                    .orElse(NO_GETTER);
+        });
+    }
+
+    /**
+     * @return the field, the property method or the setter assigning a value of the given type to the given property,
+     * or NO_SETTER
+     */
+    private static BiConsumer<Object, Object> setter(Class<?> hostClass, String property, Class<?> parameterType) {
+        return SETTERS.get(hostClass).computeIfAbsent(new Setter(property, parameterType), setter -> {
+            if (hasField(hostClass, property)) {
+                return setterOf(getField(hostClass, property));
+            }
+            return Stream.of(property, "set" + capitalize(property))
+                    .map(methodName -> findMethod(hostClass, methodName, parameterType))
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .map(Methods::setterOf)
+                    .orElse(NO_SETTER);
+        });
+    }
+
+    private record Setter(String property, Class<?> parameterType) {}
+
+    /**
+     * A dotted property path, split once into the hosts to go through and the property to apply to the last host. The
+     * dots between the parentheses of a method call ending the path don't split it.
+     */
+    private record PropertyPath(List<Segment> hosts, Segment property) {
+
+        private static PropertyPath of(String name) {
+            return Caches.get(PATHS, name, () -> parse(name));
+        }
+
+        private static PropertyPath parse(String name) {
+            int bracket = name.lastIndexOf("(");
+            int split = bracket > -1 ? name.substring(0, bracket).lastIndexOf(".") : name.lastIndexOf(".");
+            List<Segment> hosts = new ArrayList<>();
+            for (int start = 0, end; start <= split; start = end + 1) {
+                end = name.indexOf(".", start);
+                hosts.add(Segment.of(name.substring(start, end)));
+            }
+            return new PropertyPath(List.copyOf(hosts), Segment.of(name.substring(split + 1)));
+        }
+    }
+
+    /**
+     * One step of a property path: a list element (items[3]), a substring (name[0-2]), a method call (size()), a list
+     * index (3) or a name to look up.
+     */
+    private record Segment(String value, Kind kind, Segment target, int start, int end, boolean isType,
+                           String methodName, String parametersAsJson) {
+
+        private enum Kind {LIST, SUBSTRING, METHOD_CALL, INDEX, NAME}
+
+        private static Segment of(String property) {
+            Matcher isList = LIST.matcher(property);
+            if (isList.matches()) {
+                return new Segment(property, Kind.LIST, of(isList.group(1)), Integer.parseInt(isList.group(2)), -1, false, null, null);
+            }
+            Matcher isSubString = SUBSTRING.matcher(property);
+            if (isSubString.matches()) {
+                int end = StringUtils.isNotBlank(isSubString.group(3)) ? Integer.parseInt(isSubString.group(3)) : -1;
+                return new Segment(property, Kind.SUBSTRING, of(isSubString.group(1)), Integer.parseInt(isSubString.group(2)), end, false, null, null);
+            }
+            boolean isType = matches(property, TYPE_PATTERN);
+            if (matches(property, "\\w+\\(((?:[^)],?)*+)\\)")) {
+                String[] splitMethodNameAndArgs = compiled("[()]").split(property);
+                String[] parameters = splitMethodNameAndArgs.length == 1 ? new String[0] : compiled("[, ]+").split(splitMethodNameAndArgs[1]);
+                String parametersAsJson = Mapper.toJson(IntStream.range(0, parameters.length).boxed().collect(Collectors.toMap(Function.identity(), idx -> parameters[idx])));
+                return new Segment(property, Kind.METHOD_CALL, null, -1, -1, isType, splitMethodNameAndArgs[0], parametersAsJson);
+            }
+            if (matches(property, "\\d+")) {
+                return new Segment(property, Kind.INDEX, null, -1, -1, isType, null, null);
+            }
+            return new Segment(property, Kind.NAME, null, -1, -1, isType, null, null);
+        }
+    }
+
     public int getCount(String countAsString) {
         if (countAsString.equals("a")) {
             return 1;
-        } else if (countAsString.matches("\\d+")) {
+        } else if (matches(countAsString, "\\d+")) {
             return Integer.parseInt(countAsString);
         } else {
             return Integer.parseInt(get(countAsString));
         }
     }
 
-    @SneakyThrows
     public static String load(String resource) {
-        if (resource.startsWith("/")) {
-            resource = resource.substring(1);
-        }
-        try (InputStream inputStream = ObjectSteps.class.getClassLoader().getResourceAsStream(resource)) {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            if (inputStream == null) {
-                Assertions.fail("couldn't find resource: " + resource);
-            }
-            IOUtils.copy(inputStream, outputStream);
-            return outputStream.toString(UTF_8).trim();
-        }
+        return Resources.read(resource);
     }
 }
@@ -2,10 +2,12 @@ package com.decathlon.tzatziki.utils;
 
 import com.decathlon.tzatziki.steps.ObjectSteps;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.cucumber.core.runner.SkipStepException;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
-import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
 import java.time.Duration;
@@ -14,7 +16,10 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -22,7 +27,6 @@ import java.util.stream.Stream;
 import static com.decathlon.tzatziki.utils.Patterns.*;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Optional.ofNullable;
-import static java.util.concurrent.CompletableFuture.runAsync;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -39,10 +43,41 @@ public class Guard {
     public static final String GUARD = "(?:(" + GUARD_PATTERN + "(?: " + GUARD_PATTERN + ")*) )?";
     public static final String MULTI_GUARD_CAPTURE = "(?=(" + GUARD_PATTERN + "))";
     public static final Pattern PATTERN = Pattern.compile("([\\S]+) (.+)");
-    private static boolean latestEvaluatedConditionResult = true;
-    private static final List<CompletionStage<Throwable>> asyncSteps = new ArrayList<>();
+    public static final String CACHE_SIZE = "tzatziki.guards.cache-size";
+    public static final String ASYNC_THREADS = "tzatziki.guards.async-threads";
+    private static final ScenarioContext.Key<Boolean> LATEST_EVALUATED_CONDITION_RESULT = ScenarioContext.Key.of("guard.latestEvaluatedConditionResult", () -> true);
+    private static final ScenarioContext.Key<List<CompletionStage<Throwable>>> ASYNC_STEPS = ScenarioContext.Key.of("guard.asyncSteps", ArrayList::new);
+    private static final Guard ALWAYS = new Guard();
 
-    private Guard next;
+    // the guards don't hold any state of their own, so a chain parsed once can be shared by all the steps and scenarios
+    private static final Cache<String, Guard> GUARDS = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong(CACHE_SIZE, 10_000L))
+            .build();
+
+    // the delayed steps are scheduled rather than sleeping on a thread, and never on the pool used by the application
+    private static final ScheduledExecutorService ASYNC_STEPS_EXECUTOR = newAsyncStepsExecutor();
+    private static final AtomicInteger PENDING_ASYNC_STEPS = new AtomicInteger();
+
+    private final Guard next;
+
+    public Guard() {
+        this(null);
+    }
+
+    protected Guard(Guard next) {
+        this.next = next;
+    }
+
+    /**
+     * A delayed step keeps its thread while it runs, including while a {@code within} or {@code during} guard of the
+     * same step waits. The steps due while all the threads are busy start late, the pool size is given by the
+     * {@value ASYNC_THREADS} system property.
+     */
+    static ScheduledThreadPoolExecutor newAsyncStepsExecutor() {
+        return new ScheduledThreadPoolExecutor(
+                Integer.getInteger(ASYNC_THREADS, Math.max(2, Runtime.getRuntime().availableProcessors())),
+                new ThreadFactoryBuilder().setNameFormat("tzatziki-async-step-%d").setDaemon(true).build());
+    }
 
     public void in(ObjectSteps objects, Runnable stepToRun) {
         if (next != null) {
@@ -53,53 +88,56 @@ public class Guard {
     }
 
     public static Guard parse(String value) {
-        if (value != null) {
-            final Matcher guardMatcher = Pattern.compile(MULTI_GUARD_CAPTURE).matcher(value);
-
-            if (!guardMatcher.find()) return always();
-            final Guard firstGuard = extractGuard(guardMatcher.group(1));
-
-            Guard currentGuard = firstGuard;
-            while (guardMatcher.find()) {
-                final Guard nextGuard = extractGuard(guardMatcher.group(1));
-                currentGuard.next = nextGuard;
-                currentGuard = nextGuard;
-            }
+        if (value == null || value.isEmpty()) {
+            return always();
+        }
+        return Caches.get(GUARDS, value, () -> parseChain(value));
+    }
 
-            return firstGuard;
-        } else {
+    private static Guard parseChain(String value) {
+        final Matcher guardMatcher = compiled(MULTI_GUARD_CAPTURE).matcher(value);
+        List<String> guards = new ArrayList<>();
+        while (guardMatcher.find()) {
+            guards.add(guardMatcher.group(1));
+        }
+        if (guards.isEmpty()) {
             return always();
         }
+        // each guard wraps the ones after it, so the chain is built from its end
+        Guard chain = null;
+        for (int i = guards.size() - 1; i >= 0; i--) {
+            chain = extractGuard(guards.get(i), chain);
+        }
+        return chain;
     }
 
-    private static Guard extractGuard(String value) {
+    private static Guard extractGuard(String value, Guard next) {
         if (value.startsWith("it is not true that")) {
-            return invert();
+            return invert(next);
         } else if (value.startsWith("else") || value.startsWith("otherwise")) {
-            return elseCondition();
+            return elseCondition(next);
         } else if (value.startsWith("after ")) {
-            return async(extractInt(value, "after (\\d+)ms"));
+            return async(extractInt(value, "after (\\d+)ms"), next);
         } else if (value.startsWith("within ")) {
-            return within(extractInt(value, "within (\\d+)ms"));
+            return within(extractInt(value, "within (\\d+)ms"), next);
         } else if (value.startsWith("during ")) {
-            return during(extractInt(value, "during (\\d+)ms"));
+            return during(extractInt(value, "during (\\d+)ms"), next);
         } else if (value.endsWith("is thrown when")) {
-            Pattern pattern = Pattern.compile("an? (?:" + VARIABLE + " )?" + TYPE + " is thrown when");
-            Matcher matcher = pattern.matcher(value);
+            Matcher matcher = compiled("an? (?:" + VARIABLE + " )?" + TYPE + " is thrown when").matcher(value);
             assertThat(matcher.matches()).isTrue();
             String name = ofNullable(matcher.group(1)).orElse("_exception");
             Type exceptionType = TypeParser.parse(matcher.group(2));
-            return expectException(name, Types.rawTypeOf(exceptionType));
+            return expectException(name, Types.rawTypeOf(exceptionType), next);
         } else {
-            return skipOnCondition(value.replaceFirst("^if ", "").replaceAll(" =>$", ""));
+            return skipOnCondition(compiled(" =>$").matcher(compiled("^if ").matcher(value).replaceFirst("")).replaceAll(""), next);
         }
     }
 
-    private static Guard elseCondition() {
-        return new Guard() {
+    private static Guard elseCondition(Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
-                if (latestEvaluatedConditionResult) {
+                if (ScenarioContext.current().get(LATEST_EVALUATED_CONDITION_RESULT)) {
                     throw new SkipStepException();
                 }
                 super.in(objects, stepToRun);
@@ -109,32 +147,35 @@ public class Guard {
 
     @NotNull
     private static String extractString(String value, String s) {
-        return value.replaceFirst(s, "$1");
+        return compiled(s).matcher(value).replaceFirst("$1");
     }
 
     private static int extractInt(String value, String s) {
-        return Integer.parseInt(value.replaceFirst(s, "$1"));
+        return Integer.parseInt(compiled(s).matcher(value).replaceFirst("$1"));
     }
 
+    /**
+     * @return the guard running the step as it is, it is shared as it doesn't hold any state
+     */
     public static Guard always() {
-        return new Guard();
+        return ALWAYS;
     }
 
-    private static Guard skipOnCondition(String value) {
-        return new Guard() {
+    private static Guard skipOnCondition(String value, Guard next) {
+        List<Condition> conditions = Splitter.on("&&").splitToStream(value)
+                .map(token -> PATTERN.matcher(token.trim()))
+                .filter(Matcher::matches)
+                .map(matcher -> new Condition(matcher.group(1), matcher.group(2)))
+                .toList();
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
                 try {
-                    Splitter.on("&&").splitToList(value).forEach(token -> {
-                        Matcher matcher = PATTERN.matcher(token.trim());
-                        if (matcher.matches()) {
-                            Asserts.equalsInAnyOrder(objects.getOrSelf(matcher.group(1)),
-                                    "?" + objects.resolve(matcher.group(2)));
-                        }
-                    });
-                    latestEvaluatedConditionResult = true;
+                    conditions.forEach(condition -> Asserts.equalsInAnyOrder(objects.getOrSelf(condition.variable()),
+                            "?" + objects.resolve(condition.flag())));
+                    ScenarioContext.current().set(LATEST_EVALUATED_CONDITION_RESULT, true);
                 } catch (AssertionError assertionError) {
-                    latestEvaluatedConditionResult = false;
+                    ScenarioContext.current().set(LATEST_EVALUATED_CONDITION_RESULT, false);
                     throw new SkipStepException();
                 }
 
@@ -143,20 +184,16 @@ public class Guard {
         };
     }
 
-    private static Guard invert() {
-        return new Guard() {
+    private static Guard invert(Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
                 boolean testPassed = false;
-                Duration defaultTimeOut = Asserts.defaultTimeOut;
                 try {
-                    Asserts.defaultTimeOut = Duration.of(200, MILLIS);
-                    super.in(objects, stepToRun);
+                    Asserts.withTimeOut(Duration.of(200, MILLIS), () -> super.in(objects, stepToRun));
                     testPassed = true;
                 } catch (Throwable e) {
                     // The test failed
-                } finally {
-                    Asserts.defaultTimeOut = defaultTimeOut;
                 }
                 if (testPassed) {
                     fail("This test was expected to fail.");
@@ -165,29 +202,34 @@ public class Guard {
         };
     }
 
-    private static Guard async(int delay) {
-        return new Guard() {
+    private static Guard async(int delay, Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
+                List<CompletionStage<Throwable>> asyncSteps = ScenarioContext.current().get(ASYNC_STEPS);
+                CompletableFuture<Throwable> asyncStep = new CompletableFuture<>();
                 synchronized (asyncSteps) {
-                    asyncSteps.add(runAsync(() -> {
-                        try {
-                            TimeUnit.MILLISECONDS.sleep(delay);
-                            super.in(objects, stepToRun);
-                        } catch (InterruptedException e) {
-                            // Restore interrupted state...
-                            Thread.currentThread().interrupt();
-                        } finally {
-                            LoggerFactory.getLogger(Guard.class).debug("ran async step {}", stepToRun);
-                        }
-                    }).handle((unused, t) -> ofNullable(t).map(Throwable::getCause).orElse(null)));
+                    asyncSteps.add(asyncStep);
                 }
+                PENDING_ASYNC_STEPS.incrementAndGet();
+                ASYNC_STEPS_EXECUTOR.schedule(ScenarioContext.wrap(() -> {
+                    Throwable thrown = null;
+                    try {
+                        super.in(objects, stepToRun);
+                    } catch (Throwable throwable) {
+                        thrown = throwable;
+                    }
+                    // the step is no longer pending once the scenario awaiting it can see it completed
+                    PENDING_ASYNC_STEPS.decrementAndGet();
+                    log.debug("ran async step {}", stepToRun);
+                    asyncStep.complete(thrown);
+                }), delay, TimeUnit.MILLISECONDS);
             }
         };
     }
 
-    private static Guard within(int delay) {
-        return new Guard() {
+    private static Guard within(int delay, Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
                 Asserts.awaitUntilAsserted(() -> super.in(objects, stepToRun), Duration.ofMillis(delay));
@@ -195,8 +237,8 @@ public class Guard {
         };
     }
 
-    private static Guard during(int delay) {
-        return new Guard() {
+    private static Guard during(int delay, Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
                 Asserts.awaitDuring(() -> super.in(objects, stepToRun), Duration.ofMillis(delay));
@@ -204,8 +246,8 @@ public class Guard {
         };
     }
 
-    private static <T extends Throwable> Guard expectException(String name, Class<T> expectedException) {
-        return new Guard() {
+    private static <T extends Throwable> Guard expectException(String name, Class<T> expectedException, Guard next) {
+        return new Guard(next) {
             @Override
             public void in(ObjectSteps objects, Runnable stepToRun) {
                 try {
@@ -221,8 +263,16 @@ public class Guard {
         };
     }
 
+    /**
+     * @return the number of steps delayed with {@code after <amount>ms} that are scheduled or running, in all the scenarios
+     */
+    public static int pendingAsyncSteps() {
+        return PENDING_ASYNC_STEPS.get();
+    }
+
     public static void awaitAsyncSteps() {
         List<Throwable> throwables;
+        List<CompletionStage<Throwable>> asyncSteps = ScenarioContext.current().get(ASYNC_STEPS);
         synchronized (asyncSteps) {
             CompletableFuture<Throwable>[] cfs = asyncSteps.stream()
                     .map(CompletionStage::toCompletableFuture)
@@ -239,4 +289,6 @@ public class Guard {
             throw new AssertionError("Async steps shouldn't throw any error!");
         }
     }
+
+    private record Condition(String variable, String flag) {}
 }
@@ -3,6 +3,10 @@ package com.decathlon.tzatziki.utils;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Patterns {
 
@@ -22,7 +26,22 @@ public final class Patterns {
     public static final String VERIFICATION = "(exactly|at least|at most)";
     public static final String VARIABLE_OR_TEMPLATE_PATTERN = "(\\{\\{[_a-zA-Z][_\\-.\\w]*\\}\\}|"+ VARIABLE_PATTERN +"|\"[^\"]+\")";
 
+    private static final Map<String, Pattern> COMPILED = new ConcurrentHashMap<>();
 
+    /**
+     * The steps evaluate the same regexes over and over, this compiles each of them once. Meant for the regexes written
+     * in the code, the registry is never cleared.
+     *
+     * @return the compiled form of the given regex
+     */
+    public static Pattern compiled(String regex) {
+        return COMPILED.computeIfAbsent(regex, Pattern::compile);
+    }
 
-
+    /**
+     * Same as {@link String#matches(String)}, without compiling the regex each time.
+     */
+    public static boolean matches(String value, String regex) {
+        return compiled(regex).matcher(value).matches();
+    }
 }
@@ -0,0 +1,115 @@
+package com.decathlon.tzatziki.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Loads the resources of the classpath, like the files used with the {@code {{{[&path/to/file]}}}} syntax.
+ * <p>
+ * The content of the resources is cached and only read again if the resource now comes from another location, or if
+ * the file it comes from was modified since.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Resources {
+
+    public static final String CACHE_SIZE = "tzatziki.resources.cache-size";
+
+    private static final Cache<String, Content> CONTENTS = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong(CACHE_SIZE, 1_000L))
+            .recordStats()
+            .build();
+
+    /**
+     * @return the content of the given resource, without its leading and trailing whitespaces
+     */
+    public static String read(String resource) {
+        Version version = versionOf(resource);
+        Content content = Caches.get(CONTENTS, version.name, () -> new Content(version, read(version)));
+        if (!content.version.equals(version)) {
+            content = CONTENTS.asMap().compute(version.name, (name, cached) -> cached != null && cached.version.equals(version)
+                    ? cached
+                    : new Content(version, read(version)));
+        }
+        return content.text;
+    }
+
+    public static CacheStats cacheStats() {
+        return CONTENTS.stats();
+    }
+
+    public static void clearCache() {
+        CONTENTS.invalidateAll();
+    }
+
+    @SneakyThrows
+    private static Version versionOf(String resource) {
+        String name = resource.startsWith("/") ? resource.substring(1) : resource;
+        URL url = Resources.class.getClassLoader().getResource(name);
+        if (url == null) {
+            fail("couldn't find resource: " + resource);
+        }
+        if ("file".equals(url.getProtocol())) {
+            Path path = Path.of(url.toURI());
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new Version(name, url, path, attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+        // the resources of a jar don't change while the tests are running
+        return new Version(name, url, null, 0, 0);
+    }
+
+    @SneakyThrows
+    private static String read(Version version) {
+        if (version.path == null) {
+            try (InputStream inputStream = version.url.openStream()) {
+                return trimmed(inputStream.readAllBytes());
+            }
+        }
+        return trimmed(Files.readAllBytes(version.path));
+    }
+
+    /**
+     * Decodes the content without its leading and trailing whitespaces, like {@link String#trim()} but without copying the
+     * bytes first. The bytes of the multibyte UTF-8 characters are all above the ones trimmed.
+     */
+    private static String trimmed(byte[] bytes) {
+        int from = 0;
+        int to = bytes.length;
+        while (from < to && (bytes[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (bytes[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        return new String(bytes, from, to - from, UTF_8);
+    }
+
+    private record Version(String name, URL url, Path path, long lastModified, long size) {
+
+        // URL.equals resolves the host names, the locations are compared as text instead
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Version version && name.equals(version.name) && url.toString().equals(version.url.toString())
+                    && lastModified == version.lastModified && size == version.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    private record Content(Version version, String text) {}
+}
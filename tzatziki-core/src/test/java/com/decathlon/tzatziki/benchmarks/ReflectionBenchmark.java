@@ -0,0 +1,106 @@
+package com.decathlon.tzatziki.benchmarks;
+
+import com.decathlon.tzatziki.User;
+import com.decathlon.tzatziki.utils.Fields;
+import com.decathlon.tzatziki.utils.Methods;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Compares the ways of reading and writing the properties of the objects in the context: the lambdas generated by
+ * {@link Methods#getterOf(Method)} and {@link Methods#setterOf(Method)}, core reflection, and method handles held in a
+ * field like they would be in a cache. Core reflection is kept by {@link Methods#invokeUnchecked(Object, Method, Object...)}
+ * and {@link Fields#getValue(Object, Field)} since a method handle that is not a constant doesn't get inlined.
+ * <p>
+ * Run its main method from the test classpath of tzatziki-core, or {@code org.openjdk.jmh.Main ReflectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionBenchmark {
+
+    private final User user = User.builder().id(1).name("bob").score(3).build();
+    private final Method getName = Methods.getMethod(User.class, "getName");
+    private final Method setScore = Methods.getMethod(User.class, "setScore", Integer.class);
+    private final Field name = Fields.getField(User.class, "name");
+    private final Function<Object, Object> generatedGetter = Methods.getterOf(getName);
+    private final BiConsumer<Object, Object> generatedSetter = Methods.setterOf(setScore);
+    private final MethodHandle getterHandle = handle(getName);
+    private final MethodHandle setterHandle = handle(setScore);
+    private final MethodHandle fieldHandle = fieldHandle(name);
+
+    @Benchmark
+    public Object getter() {
+        return generatedGetter.apply(user);
+    }
+
+    @Benchmark
+    public Object getterReflective() {
+        return Methods.invokeUnchecked(user, getName);
+    }
+
+    @Benchmark
+    public Object getterHandle() throws Throwable {
+        return (Object) getterHandle.invokeExact((Object) user);
+    }
+
+    @Benchmark
+    public void setter() {
+        generatedSetter.accept(user, 4);
+    }
+
+    @Benchmark
+    public Object setterReflective() {
+        return Methods.invokeUnchecked(user, setScore, 4);
+    }
+
+    @Benchmark
+    public Object setterHandle() throws Throwable {
+        return (Object) setterHandle.invokeExact((Object) user, (Object) 4);
+    }
+
+    @Benchmark
+    public Object field() {
+        return Fields.getValue(user, name);
+    }
+
+    @Benchmark
+    public Object fieldHandle() throws Throwable {
+        return (Object) fieldHandle.invokeExact((Object) user);
+    }
+
+    private static MethodHandle handle(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            return handle.asType(MethodType.genericMethodType(handle.type().parameterCount()));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle fieldHandle(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.genericMethodType(1));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReflectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.decathlon.tzatziki.benchmarks;
+
+import com.decathlon.tzatziki.utils.Guard;
+import com.decathlon.tzatziki.utils.Patterns;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.decathlon.tzatziki.utils.Patterns.TYPE_PATTERN;
+
+/**
+ * Measures the regexes evaluated by every step, each {@code *Recompiled} benchmark does the same work as the one before
+ * it but compiles its regexes on every call, like {@link String#matches(String)} does.
+ * <p>
+ * Run its main method from the test classpath of tzatziki-core, or {@code org.openjdk.jmh.Main StepPatternsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepPatternsBenchmark {
+
+    private static final String GUARDS = "within 100ms it is not true that ";
+    private static final String PROPERTY = "user";
+
+    @Benchmark
+    public Guard guardParse() {
+        return Guard.parse(GUARDS);
+    }
+
+    @Benchmark
+    public int guardParseRecompiled() {
+        Matcher guardMatcher = Pattern.compile(Guard.MULTI_GUARD_CAPTURE).matcher(GUARDS);
+        int within = 0;
+        while (guardMatcher.find()) {
+            String guard = guardMatcher.group(1);
+            if (guard.startsWith("within ")) {
+                within = Integer.parseInt(guard.replaceFirst("within (\\d+)ms", "$1"));
+            }
+        }
+        return within;
+    }
+
+    @Benchmark
+    public boolean propertyIsAType() {
+        return Patterns.matches(PROPERTY, TYPE_PATTERN);
+    }
+
+    @Benchmark
+    public boolean propertyIsATypeRecompiled() {
+        return PROPERTY.matches(TYPE_PATTERN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StepPatternsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
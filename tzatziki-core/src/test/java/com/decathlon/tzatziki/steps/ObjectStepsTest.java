@@ -0,0 +1,67 @@
+package com.decathlon.tzatziki.steps;
+
+import com.github.jknack.handlebars.Template;
+import com.google.common.cache.CacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObjectStepsTest {
+
+    @Test
+    public void templatesAreCompiledOnce() throws Exception {
+        ObjectSteps.clearTemplateCache();
+        CacheStats before = ObjectSteps.templateCacheStats();
+
+        Template template = ObjectSteps.compile("{{compiledOnce}}");
+        assertThat(ObjectSteps.compile("{{compiledOnce}}")).isSameAs(template);
+        CacheStats stats = ObjectSteps.templateCacheStats().minus(before);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+
+        ObjectSteps.clearTemplateCache();
+        assertThat(ObjectSteps.compile("{{compiledOnce}}")).isNotSameAs(template);
+        assertThat(ObjectSteps.templateCacheStats().minus(before).missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void templatesCompiledConcurrentlyAreOnlyLoadedOnce() throws Exception {
+        ObjectSteps.clearTemplateCache();
+        CacheStats before = ObjectSteps.templateCacheStats();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Callable<Template> compile = () -> ObjectSteps.compile("{{compiledConcurrently}}");
+            List<Future<Template>> templates = executor.invokeAll(IntStream.range(0, 64).mapToObj(i -> compile).toList());
+            Template template = templates.get(0).get();
+            for (Future<Template> other : templates) {
+                assertThat(other.get()).isSameAs(template);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        CacheStats stats = ObjectSteps.templateCacheStats().minus(before);
+        assertThat(stats.loadCount()).isEqualTo(1);
+        assertThat(stats.requestCount()).isEqualTo(64);
+    }
+
+    @Test
+    public void theLeastRecentlyUsedTemplatesAreEvicted() throws Exception {
+        ObjectSteps.clearTemplateCache();
+        CacheStats before = ObjectSteps.templateCacheStats();
+
+        long size = Long.getLong(ObjectSteps.TEMPLATE_CACHE_SIZE, 10_000L);
+        for (int i = 0; i <= size; i++) {
+            ObjectSteps.compile("{{evicted" + i + "}}");
+        }
+        assertThat(ObjectSteps.templateCacheStats().minus(before).evictionCount()).isPositive();
+        ObjectSteps.clearTemplateCache();
+    }
+}
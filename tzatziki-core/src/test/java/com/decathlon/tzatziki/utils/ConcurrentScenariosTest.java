@@ -0,0 +1,85 @@
+package com.decathlon.tzatziki.utils;
+
+import com.decathlon.tzatziki.steps.ObjectSteps;
+import io.cucumber.core.runner.SkipStepException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ConcurrentScenariosTest {
+
+    private static final int SCENARIOS = 8;
+
+    @Test
+    public void theStateOfAScenarioDoesNotLeakIntoTheOnesRunningAlongside() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(SCENARIOS);
+        ExecutorService executor = Executors.newFixedThreadPool(SCENARIOS);
+        try {
+            List<Callable<Void>> scenarios = IntStream.range(0, SCENARIOS).<Callable<Void>>mapToObj(i -> () -> {
+                ScenarioContext.start("scenario-" + i);
+                try {
+                    runScenario(i, barrier);
+                } finally {
+                    ScenarioContext.end();
+                }
+                return null;
+            }).toList();
+            for (Future<Void> scenario : executor.invokeAll(scenarios)) {
+                scenario.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // every scenario sets its state, waits for the others to set theirs, and checks that it still sees its own
+    private static void runScenario(int i, CyclicBarrier barrier) throws Exception {
+        Instant now = Instant.parse("2020-01-01T00:00:00Z").plus(Duration.ofDays(i));
+        Duration timeOut = Duration.ofMillis(100 + i);
+        ObjectSteps objects = new ObjectSteps();
+        objects.add("x", i % 2);
+
+        Time.set(now);
+        AtomicBoolean conditionMet = new AtomicBoolean();
+        try {
+            Guard.parse("if x == 1 =>").in(objects, () -> conditionMet.set(true));
+        } catch (SkipStepException e) {
+            // the condition is false for the even scenarios
+        }
+        Asserts.withTimeOut(timeOut, () -> {
+            await(barrier);
+            assertThat(Time.now()).isEqualTo(now);
+            assertThat(Asserts.timeOut()).isEqualTo(timeOut);
+            assertThat(conditionMet.get()).isEqualTo(i % 2 == 1);
+            if (conditionMet.get()) {
+                assertThatExceptionOfType(SkipStepException.class).isThrownBy(() -> Guard.parse("else").in(objects, () -> {}));
+            } else {
+                AtomicBoolean otherwise = new AtomicBoolean();
+                Guard.parse("else").in(objects, () -> otherwise.set(true));
+                assertThat(otherwise).isTrue();
+            }
+            await(barrier);
+        });
+        assertThat(Asserts.timeOut()).isEqualTo(Asserts.defaultTimeOut);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
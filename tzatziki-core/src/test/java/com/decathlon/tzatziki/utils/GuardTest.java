@@ -0,0 +1,100 @@
+package com.decathlon.tzatziki.utils;
+
+import com.decathlon.tzatziki.steps.ObjectSteps;
+import io.cucumber.core.runner.SkipStepException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GuardTest {
+
+    @AfterEach
+    public void end() {
+        ScenarioContext.end();
+    }
+
+    @Test
+    public void parsedChainsAreReused() {
+        assertThat(Guard.parse("if x == 1 => after 10ms")).isSameAs(Guard.parse("if x == 1 => after 10ms"));
+        assertThat(Guard.parse("if x == 1 => after 10ms")).isNotSameAs(Guard.parse("if x == 2 => after 10ms"));
+    }
+
+    @Test
+    public void stepsWithoutGuardShareTheDefaultOne() {
+        assertThat(Guard.parse(null)).isSameAs(Guard.always());
+        assertThat(Guard.parse("")).isSameAs(Guard.always());
+        assertThat(Guard.parse("not a guard")).isSameAs(Guard.always());
+    }
+
+    @Test
+    public void cachedConditionsAreEvaluatedAgainstTheObjectsOfTheCurrentScenario() {
+        Guard condition = Guard.parse("if x == 1 =>");
+        Guard otherwise = Guard.parse("else");
+        List<String> ran = new ArrayList<>();
+
+        ScenarioContext.start("first");
+        ObjectSteps firstObjects = new ObjectSteps();
+        firstObjects.add("x", 1);
+        condition.in(firstObjects, () -> ran.add("first"));
+
+        CompletableFuture.runAsync(() -> {
+            ScenarioContext.start("second");
+            try {
+                ObjectSteps secondObjects = new ObjectSteps();
+                secondObjects.add("x", 2);
+                assertThatExceptionOfType(SkipStepException.class).isThrownBy(() -> Guard.parse("if x == 1 =>").in(secondObjects, () -> ran.add("second")));
+                otherwise.in(secondObjects, () -> ran.add("second otherwise"));
+            } finally {
+                ScenarioContext.end();
+            }
+        }).join();
+
+        // the condition evaluated by the second scenario doesn't change the else branch of the first one
+        assertThatExceptionOfType(SkipStepException.class).isThrownBy(() -> otherwise.in(firstObjects, () -> ran.add("first otherwise")));
+        assertThat(ran).containsExactly("first", "second otherwise");
+    }
+
+    @Test
+    public void delayedStepsRunOnTheirOwnPoolInTheContextOfTheirScenario() {
+        ScenarioContext scenario = ScenarioContext.start("delayed");
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<ScenarioContext> context = new AtomicReference<>();
+        int pendingBefore = Guard.pendingAsyncSteps();
+
+        Guard.parse("after 200ms").in(new ObjectSteps(), () -> {
+            thread.set(Thread.currentThread().getName());
+            context.set(ScenarioContext.current());
+        });
+        assertThat(Guard.pendingAsyncSteps()).isEqualTo(pendingBefore + 1);
+        assertThat(thread.get()).isNull();
+
+        Guard.awaitAsyncSteps();
+        assertThat(Guard.pendingAsyncSteps()).isEqualTo(pendingBefore);
+        assertThat(thread.get()).startsWith("tzatziki-async-step-");
+        assertThat(context.get()).isSameAs(scenario);
+    }
+
+    @Test
+    public void theSizeOfTheDelayedStepsPoolCanBeConfigured() {
+        ScheduledThreadPoolExecutor executor = Guard.newAsyncStepsExecutor();
+        assertThat(executor.getCorePoolSize()).isEqualTo(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        executor.shutdown();
+
+        System.setProperty(Guard.ASYNC_THREADS, "5");
+        try {
+            executor = Guard.newAsyncStepsExecutor();
+            assertThat(executor.getCorePoolSize()).isEqualTo(5);
+            executor.shutdown();
+        } finally {
+            System.clearProperty(Guard.ASYNC_THREADS);
+        }
+    }
+}
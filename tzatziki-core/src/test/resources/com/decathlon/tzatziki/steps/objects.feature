@@ -317,6 +317,25 @@ Feature: to interact with objects in the context
       name: Alice
       """
     
+  Scenario: a loaded file is read again once it was modified
+    Given that we output in "reloaded/bob.yaml":
+      """yml
+      id: 1
+      name: bob
+      """
+    And bob is "{{{[&reloaded/bob.yaml]}}}"
+    When we output in "reloaded/bob.yaml":
+      """yml
+      id: 2
+      name: bobby
+      """
+    And bob is "{{{[&reloaded/bob.yaml]}}}"
+    Then bob is equal to:
+      """yml
+      id: 2
+      name: bobby
+      """
+
   Scenario: we cannot write a file outside the resource folder of the build
     * it is not true that we output in "../../bob.yaml":
       """yml
@@ -365,6 +384,23 @@ Feature: to interact with objects in the context
     """
     Then it is not true that bob.id == 2
 
+  Scenario Outline: the same property path can be read and written on hosts of different types
+    Given that bob is <type>:
+    """yml
+    id: 1
+    name: bob
+    """
+    When bob.name is "bobby"
+    And bob.score is 3
+    Then bob.name == "bobby"
+    And bob.score == 3
+    And bob.name[1-] == "obby"
+
+    Examples:
+      | type   |
+      | a User |
+      | a Map  |
+
   Scenario: testing a null field
     Given that bob is a User:
     """yml
@@ -10,6 +10,8 @@ public class HttpConfigurationProperties {
     public static final String HTTP_PORT = "tzatziki.http.port";
     public static final String HTTP_MAX_CONCURRENT_REQUESTS = "tzatziki.http.max-concurrent-requests";
     public static final String OAUTH2_TOKEN_URL = "tzatziki.http.oauth2.token-url";
+    public static final String HTTP_ISOLATE_SCENARIOS = "tzatziki.http.isolate-scenarios";
+    public static final String HTTP_SERVER_POOL_SIZE = "tzatziki.http.server-pool-size";
 
     public static int getPortProperty() {
         String portProperty = System.getProperty(HTTP_PORT);
@@ -37,7 +39,24 @@ public class HttpConfigurationProperties {
         return maxConcurrentRequests;
     }
 
+    public static int getServerPoolSizeProperty() {
+        String serverPoolSizeProperty = System.getProperty(HTTP_SERVER_POOL_SIZE);
+        int serverPoolSize = 0; // 0 means that all the scenarios share the same server
+        if (serverPoolSizeProperty != null) {
+            try {
+                serverPoolSize = Integer.parseInt(serverPoolSizeProperty);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid server pool size specified in " + HTTP_SERVER_POOL_SIZE + ": " + serverPoolSizeProperty, e);
+            }
+        }
+        return serverPoolSize;
+    }
+
     public static String getOAuth2TokenUrlProperty() {
         return System.getProperty(OAUTH2_TOKEN_URL);
     }
+
+    public static boolean getIsolateScenariosProperty() {
+        return Boolean.parseBoolean(System.getProperty(HTTP_ISOLATE_SCENARIOS));
+    }
 }
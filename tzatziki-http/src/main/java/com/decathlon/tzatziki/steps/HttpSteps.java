@@ -12,13 +12,14 @@ import com.github.tomakehurst.wiremock.common.Urls;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.extension.Extensions;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
-import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.verification.NearMiss;
 import com.github.tomakehurst.wiremock.verification.diff.Diff;
 import com.github.tomakehurst.wiremock.verification.notmatched.PlainTextStubNotMatchedRenderer;
+import com.google.common.collect.ForwardingSet;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.And;
@@ -37,6 +38,7 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
@@ -55,7 +57,6 @@ import static com.decathlon.tzatziki.utils.Patterns.*;
 import static com.decathlon.tzatziki.utils.Unchecked.unchecked;
 import static com.github.tomakehurst.wiremock.client.WireMock.configureFor;
 import static com.github.tomakehurst.wiremock.core.Options.ChunkedEncodingPolicy.BODY_FILE;
-import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.allRequests;
 import static io.restassured.RestAssured.given;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
@@ -69,15 +70,42 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class HttpSteps {
 
     public static final String STATUS = "([A-Z_]+[A-Z]|\\d+|[A-Z_]+_\\d+)";
+    /**
+     * sent along the calls of the steps when the scenarios are isolated or the servers pooled, so that the tested
+     * application can bind the threads serving them to the running scenario with {@link ScenarioContext#running(String)}
+     */
+    public static final String SCENARIO_HEADER = "X-Tzatziki-Scenario";
     public static final WireMockServer wireMockServer = new WireMockServer(
             createWireMockConfiguration());
     private boolean doNotAllowUnhandledRequests = true;
     private final Set<RequestPatternBuilder> allowedUnhandledRequests = new HashSet<>();
     private final Map<String, List<Pair<String, String>>> headersByUsername = new LinkedHashMap<>();
     private UnaryOperator<String> relativeUrlRewriter = UnaryOperator.identity();
-    public static final Set<String> MOCKED_PATHS = new LinkedHashSet<>();
+    private static final ScenarioContext.Key<Set<String>> SCENARIO_MOCKED_PATHS = ScenarioContext.Key.of("http.mockedPaths", ConcurrentHashMap::newKeySet);
+    /**
+     * the hosts mocked by the running scenario, scenarios running in parallel each see their own
+     */
+    public static final Set<String> MOCKED_PATHS = new ForwardingSet<>() {
+        @Override
+        protected Set<String> delegate() {
+            return ScenarioContext.current().get(SCENARIO_MOCKED_PATHS);
+        }
+    };
+    /**
+     * @deprecated the port of the default server only, use {@link #localPort()} to get the one of the server used by the
+     * running scenario
+     */
+    @Deprecated
     public static Integer localPort;
     public static boolean resetMocksBetweenTests = true;
+    /**
+     * serves the hosts mocked by each scenario under its own namespace, so that scenarios can run in parallel
+     */
+    public static boolean isolateScenarios = HttpConfigurationProperties.getIsolateScenariosProperty();
+    private static final WireMockServerPool serverPool = HttpConfigurationProperties.getServerPoolSizeProperty() > 0
+            ? new WireMockServerPool(HttpConfigurationProperties.getServerPoolSizeProperty(), () -> new WireMockServer(createWireMockConfiguration().dynamicPort()))
+            : null;
+    private static final ScenarioContext.Key<WireMockServer> LEASED_SERVER = ScenarioContext.Key.of("http.leasedServer", () -> null);
     private static final PlainTextStubNotMatchedRenderer notMatchedRenderer = new PlainTextStubNotMatchedRenderer(Extensions.NONE);
 
     static {
@@ -97,6 +125,28 @@ public class HttpSteps {
 
     }
 
+    /**
+     * @return the server leased by the running scenario if the servers are pooled, {@link #wireMockServer} otherwise
+     */
+    public static WireMockServer wireMockServer() {
+        WireMockServer leasedServer = ScenarioContext.current().get(LEASED_SERVER);
+        return leasedServer != null ? leasedServer : wireMockServer;
+    }
+
+    /**
+     * @return the port of {@link #wireMockServer()}
+     */
+    public static Integer localPort() {
+        return wireMockServer().port();
+    }
+
+    /**
+     * @return true if each scenario leases its own server from the pool
+     */
+    public static boolean serversArePooled() {
+        return serverPool != null;
+    }
+
     private static WireMockConfiguration createWireMockConfiguration() {
         WireMockConfiguration config = WireMockConfiguration.wireMockConfig()
                 .useChunkedTransferEncoding(BODY_FILE) // Don't use chunked transfer encoding for our mocked responses, preserving backward compatibility with MockServer behavior
@@ -105,11 +155,13 @@ public class HttpSteps {
                 .extensions(new ContentTypeTransformer())
                 .extensions(new SplitHelperProviderExtension())
                 .extensions(new CustomCallbackTransformer())
+                .extensions(new ConsumptionTransformer())
+                .extensions(new ScenarioNamespaceListener())
                 .extensions(new JettyRequestLimitHttpServerFactory());
 
         config.port(HttpConfigurationProperties.getPortProperty());
 
-        return config;
+        return ServeEventJournal.register(config);
     }
 
 
@@ -125,9 +177,14 @@ public class HttpSteps {
 
     @Before(order = -1) // just for this instance to be created
     public void before() {
+        if (serverPool != null) {
+            ScenarioContext.current().set(LEASED_SERVER, serverPool.lease());
+        }
         if (resetMocksBetweenTests) {
             HttpUtils.reset();
             OAuth2ClientCredentialsStore.reset();
+        } else {
+            HttpWiremockUtils.keepMockedPaths();
         }
     }
 
@@ -262,8 +319,8 @@ public class HttpSteps {
     }
 
     /**
-     * Registers a sequence of mock responses for a given URL path in WireMock, using scenario and state
-     * to control the order and consumption of responses.
+     * Registers a sequence of mock responses for a given URL path in WireMock. The whole sequence is served by a single
+     * stub through the {@link ConsumptionTransformer}, which counts the responses consumed for this method and path.
      *
      * @param path        The URL path to be mocked.
      * @param interaction The interaction object containing the request and a list of responses.
@@ -271,31 +328,21 @@ public class HttpSteps {
      * @param comparison  The comparison logic to be used for matching requests.
      **/
     public void url_is_mocked_as(String path, Interaction interaction, Comparison comparison) {
-        String mocked = mocked(objects.resolve(path));
-
-        String scenarioName = interaction.request.method + "_" + path;
-        String initialState = Scenario.STARTED;
-
-        for (int responseIndex = 1; responseIndex <= interaction.response.size(); responseIndex++) {
-            for (int consumptionIndex = 1; consumptionIndex <= interaction.response.get(responseIndex - 1).consumptions; consumptionIndex++) {
-                Response response = interaction.response.get(responseIndex - 1);
-                // The state in which this response is served
-                String stateName = responseIndex == 1 && consumptionIndex == 1 ? initialState : "State " + responseIndex + "_" + consumptionIndex;
-                // The state to transition to after serving this response
-                String nextStateName = consumptionIndex == response.consumptions ? "State " + (responseIndex + 1) + "_" + 1 : "State " + responseIndex + "_" + (consumptionIndex + 1);
-                // If this is the last response and last consumption, do not transition to a new state
-                nextStateName = responseIndex == interaction.response.size() && consumptionIndex == response.consumptions ? null : nextStateName;
-                MappingBuilder request = getRequest(interaction, response, match(mocked), scenarioName, stateName, nextStateName, comparison);
-                wireMockServer.stubFor(request);
-            }
-        }
-    }
-
-    private MappingBuilder getRequest(Interaction interaction, Response response, Matcher uri, String scenarioName, String stateName, String nextStateName, Comparison comparison) {
+        Matcher uri = match(mocked(objects.resolve(path)));
         MappingBuilder request = interaction.request.toMappingBuilder(objects, uri, comparison);
-        ResponseDefinitionBuilder responseDefinition = response.toResponseDefinitionBuilder(objects, uri);
-        request.inScenario(scenarioName).whenScenarioStateIs(stateName).willReturn(responseDefinition).willSetStateTo(nextStateName);
-        return request;
+
+        if (interaction.response.size() == 1) {
+            // the last response is served forever, there is nothing to count
+            request.willReturn(interaction.response.get(0).toResponseDefinitionBuilder(objects, uri));
+        } else {
+            String sequence = ofNullable(namespace()).map(namespace -> namespace + "_").orElse("") + interaction.request.method + "_" + path;
+            List<ResponseDefinition> responses = interaction.response.stream()
+                    .map(response -> response.toResponseDefinitionBuilder(objects, uri).build())
+                    .toList();
+            List<Integer> consumptions = interaction.response.stream().map(response -> response.consumptions).toList();
+            request.willReturn(ConsumptionTransformer.inSequence(sequence, responses, consumptions));
+        }
+        wireMockServer().stubFor(inNamespace(request));
     }
 
     public static HttpStatusCode getHttpStatusCode(String value) {
@@ -439,23 +486,26 @@ public class HttpSteps {
     }
 
     private List<ServeEvent> getServeEvents(RequestPatternBuilder requestPatternBuilder) {
-        Stream<ServeEvent> stream = wireMockServer.getAllServeEvents().stream();
+        RequestPattern requestPattern = requestPatternBuilder != null ? requestPatternBuilder.build() : null;
+        ServeEventJournal journal = ServeEventJournal.of(wireMockServer());
+        Stream<ServeEvent> stream = journal != null
+                ? journal.find(requestPattern)
+                : wireMockServer().getAllServeEvents().stream().filter(serveEvent -> requestPattern == null || RequestPattern.thatMatch(requestPattern).test(serveEvent.getRequest()));
         return stream
-                .filter(serveEvent -> requestPatternBuilder == null ||
-                        RequestPattern.thatMatch(requestPatternBuilder.build()).test(serveEvent.getRequest()))
+                .filter(serveEvent -> isInTheScenario(serveEvent.getRequest()))
                 .sorted(Comparator.comparing(serveEvent -> serveEvent.getRequest().getLoggedDate()))
                 .toList();
     }
 
     private VerificationException verificationExceptionForNearMisses(
             RequestPatternBuilder requestPatternBuilder, RequestPattern requestPattern) {
-        List<NearMiss> nearMisses = wireMockServer.findAllNearMissesFor(requestPatternBuilder);
+        List<NearMiss> nearMisses = wireMockServer().findAllNearMissesFor(requestPatternBuilder);
         if (!nearMisses.isEmpty()) {
             Diff diff = new Diff(requestPattern, nearMisses.get(0).getRequest());
             return VerificationException.forUnmatchedRequestPattern(diff);
         }
 
-        return new VerificationException(requestPattern, wireMockServer.findAll(allRequests()));
+        return new VerificationException(requestPattern, wireMockServer().findAll(allRequestsOfTheScenario()));
     }
 
     @Then(THAT + GUARD + "the interactions? on " + QUOTED_CONTENT + " (?:were|was)" + COMPARING_WITH + ":$")
@@ -561,14 +611,11 @@ public class HttpSteps {
     private static Request toRequestWithGzipBody(Request request) {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
-            String payload;
             if (request.body.payload instanceof String strPayload) {
-                payload = strPayload;
+                gzipOutputStream.write(strPayload.getBytes(StandardCharsets.UTF_8));
             } else {
-                payload = Mapper.toJson(request.body.payload);
+                Mapper.write(request.body.payload, gzipOutputStream);
             }
-
-            gzipOutputStream.write(payload.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             throw new AssertionError(e.getMessage(), e);
         }
@@ -579,20 +626,31 @@ public class HttpSteps {
 
     @After
     public void after() {
-        if (doNotAllowUnhandledRequests) {
-            List<ServeEvent> unhandledRequests = wireMockServer.getServeEvents(ServeEventQuery.ALL_UNMATCHED).getRequests();
-            List<ServeEvent> forbiddenUnhandledRequests = unhandledRequests.stream().filter(serveEvent -> allowedUnhandledRequests.stream().noneMatch(allowedUnhandledRequest -> RequestPattern.thatMatch(allowedUnhandledRequest.build()).test(serveEvent.getRequest()))).toList();
-            withFailMessage(() -> assertThat(forbiddenUnhandledRequests).isEmpty(), () -> "\nThere are unhandled requests:\n" +
-                    forbiddenUnhandledRequests.stream().map(serveEvent -> notMatchedRenderer.render(wireMockServer, serveEvent).getBody()).collect(Collectors.joining()));
+        try {
+            if (doNotAllowUnhandledRequests) {
+                List<ServeEvent> unhandledRequests = wireMockServer().getServeEvents(ServeEventQuery.ALL_UNMATCHED).getRequests();
+                List<ServeEvent> forbiddenUnhandledRequests = unhandledRequests.stream().filter(serveEvent -> isInTheScenario(serveEvent.getRequest())).filter(serveEvent -> allowedUnhandledRequests.stream().noneMatch(allowedUnhandledRequest -> RequestPattern.thatMatch(allowedUnhandledRequest.build()).test(serveEvent.getRequest()))).toList();
+                withFailMessage(() -> assertThat(forbiddenUnhandledRequests).isEmpty(), () -> "\nThere are unhandled requests:\n" +
+                        forbiddenUnhandledRequests.stream().map(serveEvent -> notMatchedRenderer.render(wireMockServer(), serveEvent).getBody()).collect(Collectors.joining()));
+            }
+        } finally {
+            if (namespace() != null) {
+                // the namespace won't be used anymore
+                HttpUtils.reset();
+            }
+            WireMockServer leasedServer = ScenarioContext.current().set(LEASED_SERVER, null);
+            if (leasedServer != null) {
+                serverPool.release(leasedServer);
+            }
         }
     }
 
 
     public static void assertHasReceived(RequestPatternBuilder requestPatternBuilder, Integer count) {
         if (count == null) {
-            wireMockServer.verify(new CountMatchingStrategy(CountMatchingStrategy.GREATER_THAN_OR_EQUAL, 1), requestPatternBuilder);
+            wireMockServer().verify(new CountMatchingStrategy(CountMatchingStrategy.GREATER_THAN_OR_EQUAL, 1), requestPatternBuilder);
         } else {
-            wireMockServer.verify(count, requestPatternBuilder);
+            wireMockServer().verify(count, requestPatternBuilder);
         }
 
     }
@@ -607,6 +665,9 @@ public class HttpSteps {
 
     private RequestSpecification as(String user) {
         RequestSpecification request = given();
+        if (ScenarioContext.isBound() && (namespace() != null || serverPool != null)) {
+            request = request.header(SCENARIO_HEADER, ScenarioContext.current().getId());
+        }
         user = user != null ? user.trim() : null;
         if (headersByUsername.containsKey(user)) {
             for (Pair<String, String> header : headersByUsername.get(user)) {
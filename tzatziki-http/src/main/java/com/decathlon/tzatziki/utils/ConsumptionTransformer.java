@@ -0,0 +1,81 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves a sequence of responses from a single stub: each response is served as many times as it can be consumed, and
+ * the last one is served forever. The number of responses served is counted per sequence name, so that a mock declared
+ * again with the same name carries on where the previous one stopped, until the stubs are removed or reset.
+ */
+public class ConsumptionTransformer implements ResponseDefinitionTransformerV2, StubLifecycleListener {
+
+    public static final String NAME = "consumption-transformer";
+    private static final String SEQUENCE = "sequence";
+    private static final String RESPONSES = "responses";
+    private static final String CONSUMPTIONS = "consumptions";
+
+    private final Map<String, AtomicInteger> served = new ConcurrentHashMap<>();
+
+    /**
+     * @param sequence     the name under which the consumed responses are counted
+     * @param responses    the responses to serve in order
+     * @param consumptions how many times each response can be served before moving to the next one
+     * @return a response definition serving the given responses in sequence
+     */
+    public static ResponseDefinitionBuilder inSequence(String sequence, List<ResponseDefinition> responses, List<Integer> consumptions) {
+        return ResponseDefinitionBuilder.like(responses.get(0))
+                .withTransformers(NAME)
+                .withTransformerParameters(Map.of(SEQUENCE, sequence, RESPONSES, responses, CONSUMPTIONS, consumptions));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        Parameters parameters = serveEvent.getTransformerParameters();
+        List<ResponseDefinition> responses = (List<ResponseDefinition>) parameters.get(RESPONSES);
+        List<Integer> consumptions = (List<Integer>) parameters.get(CONSUMPTIONS);
+
+        int index = served.computeIfAbsent(parameters.getString(SEQUENCE), sequence -> new AtomicInteger()).getAndIncrement();
+        for (int responseIndex = 0; responseIndex < responses.size() - 1; responseIndex++) {
+            index -= consumptions.get(responseIndex);
+            if (index < 0) {
+                return responses.get(responseIndex);
+            }
+        }
+        return responses.get(responses.size() - 1);
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        Parameters parameters = stub.getResponse().getTransformerParameters();
+        if (stub.getResponse().hasTransformer(this) && parameters != null) {
+            served.remove(parameters.getString(SEQUENCE));
+        }
+    }
+
+    @Override
+    public void afterStubsReset() {
+        served.clear();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+}
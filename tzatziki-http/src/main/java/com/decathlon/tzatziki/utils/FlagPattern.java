@@ -12,11 +12,6 @@ public class FlagPattern extends StringValuePattern {
 
     @Override
     public MatchResult match(String value) {
-        try {
-            Asserts.equals(value, super.expectedValue);
-            return MatchResult.exactMatch();
-        } catch (Error e) {
-            return MatchResult.noMatch();
-        }
+        return MatchResult.of(Asserts.matchesEquals(value, super.expectedValue, false));
     }
 }
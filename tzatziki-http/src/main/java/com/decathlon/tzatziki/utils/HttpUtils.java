@@ -7,9 +7,10 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import java.util.*;
 import java.util.function.Function;
 
-import static com.decathlon.tzatziki.steps.HttpSteps.MOCKED_PATHS;
 import static com.decathlon.tzatziki.steps.HttpSteps.wireMockServer;
 import static com.decathlon.tzatziki.utils.Comparison.CONTAINS;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
 
 @SuppressWarnings("java:S1118")
 public class HttpUtils {
@@ -64,9 +65,11 @@ public class HttpUtils {
 
         MappingBuilder request = interaction.request.toMappingBuilder(null,
                 HttpWiremockUtils.match(interaction.request.path), comparison).willReturn(responseDefinition);
-        wireMockServer.stubFor(request);
         if(persistsAcrossResets) {
+            wireMockServer().stubFor(request);
             PERSISTENT_MOCKS.add(request);
+        } else {
+            wireMockServer().stubFor(HttpWiremockUtils.inNamespace(request));
         }
     }
 
@@ -104,13 +107,26 @@ public class HttpUtils {
         HttpSteps.assertHasReceived(request.toRequestPatternBuilder(null, HttpWiremockUtils.match(request.path), CONTAINS), times);
     }
 
+    /**
+     * Resets the mocks and the recorded requests. If the scenarios are isolated, only the ones of the running scenario
+     * are removed, as the other scenarios might still be running.
+     */
     public static void reset() {
-        wireMockServer.resetAll();
-        MOCKED_PATHS.clear();
-        PERSISTENT_MOCKS.forEach(wireMockServer::stubFor);
+        String namespace = HttpWiremockUtils.namespace();
+        if (namespace == null) {
+            wireMockServer().resetAll();
+            PERSISTENT_MOCKS.forEach(wireMockServer()::stubFor);
+        } else {
+            wireMockServer().removeStubsByMetadata(matchingJsonPath("$['" + HttpWiremockUtils.NAMESPACE_METADATA + "']", equalTo(namespace)));
+            wireMockServer().removeServeEventsMatching(HttpWiremockUtils.allRequestsOfTheScenario().build());
+        }
+        HttpWiremockUtils.resetMockedPaths();
     }
 
+    /**
+     * @return the port of the WireMock server used by the running scenario
+     */
     public static Integer localPort() {
-        return HttpSteps.localPort;
+        return HttpSteps.localPort();
     }
 }
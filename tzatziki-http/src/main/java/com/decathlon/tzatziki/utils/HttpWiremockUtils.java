@@ -1,8 +1,11 @@
 package com.decathlon.tzatziki.utils;
 
 import com.decathlon.tzatziki.steps.HttpSteps;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.MultiValue;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Splitter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -13,10 +16,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.decathlon.tzatziki.steps.HttpSteps.MOCKED_PATHS;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.allRequests;
 import static java.util.stream.Collectors.toMap;
 
 @SuppressWarnings({
@@ -28,16 +37,73 @@ public class HttpWiremockUtils {
     private static final String PROTOCOL = "(?:([^:]+)://)?";
     private static final String HOST = "([^/]+)?";
     private static final Pattern URI = Pattern.compile("^" + PROTOCOL + HOST + "((/[^?]*)?(?:\\?(.+))?)?$"); // NOSONAR
+    private static final String MOCKED = "/_mocked";
+    public static final String NAMESPACE_METADATA = "tzatziki-namespace";
+    private static final AtomicInteger NAMESPACES = new AtomicInteger();
+    private static final ScenarioContext.Key<String> NAMESPACE = ScenarioContext.Key.of("http.namespace", () -> "scenario-" + NAMESPACES.incrementAndGet());
+    // the hosts mocked by all the scenarios since the last reset, used for the calls made outside a scenario (by the tested application for instance)
+    private static final Set<String> MOCKED_PATHS_OF_ALL_SCENARIOS = ConcurrentHashMap.newKeySet();
 
     public static String mocked(String path) {
         Matcher uri = match(path);
         if (uri.group(2) != null) {
-            MOCKED_PATHS.add(uri.group(1) + "://" + uri.group(2));
+            String host = uri.group(1) + "://" + uri.group(2);
+            MOCKED_PATHS.add(host);
+            MOCKED_PATHS_OF_ALL_SCENARIOS.add(host);
             return remapAsMocked(uri);
         }
         return path;
     }
 
+    /**
+     * @return the namespace of the running scenario if {@link HttpSteps#isolateScenarios} is enabled, null otherwise
+     */
+    public static String namespace() {
+        return HttpSteps.isolateScenarios && ScenarioContext.isBound() ? ScenarioContext.current().get(NAMESPACE) : null;
+    }
+
+    /**
+     * @return the path prefix under which the hosts mocked by the running scenario are served. The namespace is part of
+     * the first segment so that the indexes of the path segments used in the response templates stay the same.
+     */
+    public static String mockedPrefix() {
+        String namespace = namespace();
+        return namespace == null ? MOCKED + "/" : MOCKED + "-" + namespace + "/";
+    }
+
+    /**
+     * @return a pattern matching all the requests sent to the namespace of the running scenario
+     */
+    public static RequestPatternBuilder allRequestsOfTheScenario() {
+        return namespace() == null ? allRequests() : anyRequestedFor(urlPathMatching(Pattern.quote(mockedPrefix()) + ".*"));
+    }
+
+    public static boolean isInTheScenario(LoggedRequest request) {
+        return namespace() == null || request.getUrl().startsWith(mockedPrefix());
+    }
+
+    /**
+     * Tags the stub with the namespace of the running scenario, so that it can be removed once the scenario is over
+     */
+    public static MappingBuilder inNamespace(MappingBuilder mappingBuilder) {
+        String namespace = namespace();
+        return namespace == null ? mappingBuilder : mappingBuilder.withMetadata(Map.of(NAMESPACE_METADATA, namespace));
+    }
+
+    /**
+     * Mocks in the running scenario the hosts mocked by the previous ones, for when the mocks are not reset between tests
+     */
+    public static void keepMockedPaths() {
+        MOCKED_PATHS.addAll(MOCKED_PATHS_OF_ALL_SCENARIOS);
+    }
+
+    static void resetMockedPaths() {
+        MOCKED_PATHS.clear();
+        if (namespace() == null) {
+            MOCKED_PATHS_OF_ALL_SCENARIOS.clear();
+        }
+    }
+
     public static Matcher match(String path) {
         Matcher uri = URI.matcher(path);
         if (!uri.matches()) {
@@ -48,19 +114,25 @@ public class HttpWiremockUtils {
 
     @NotNull
     private static String remapAsMocked(Matcher uri) {
-        return "/_mocked/" + uri.group(1) + "/" + uri.group(2) + uri.group(3);
+        return mockedPrefix() + uri.group(1) + "/" + uri.group(2) + uri.group(3);
     }
 
     public static String target(String path) {
         Matcher uri = match(path);
-        if (uri.group(2) != null && MOCKED_PATHS.contains(uri.group(1) + "://" + uri.group(2))) {
+        Set<String> mockedPaths = ScenarioContext.isBound() ? MOCKED_PATHS : MOCKED_PATHS_OF_ALL_SCENARIOS;
+        if (uri.group(2) != null && mockedPaths.contains(uri.group(1) + "://" + uri.group(2))) {
+            if (!ScenarioContext.isBound() && HttpSteps.serversArePooled()) {
+                // the default server has none of the mocks of the scenarios
+                Assertions.fail("can't tell which pooled server should receive the call to " + path + " made outside of a scenario, "
+                        + "bind the thread making it to the scenario with ScenarioContext.running(id).bind() or the " + HttpSteps.SCENARIO_HEADER + " header");
+            }
             return url() + remapAsMocked(uri);
         }
         return path;
     }
 
     public static String url() {
-        return "http://localhost:" + HttpSteps.localPort;
+        return "http://localhost:" + HttpSteps.wireMockServer().port();
     }
 
     public static Map<String, String> asMap(Collection<HttpHeader> headers) {
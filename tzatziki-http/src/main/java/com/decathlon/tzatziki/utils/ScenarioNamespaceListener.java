@@ -0,0 +1,38 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+/**
+ * Prefixes the WireMock scenario of the stubs created in a namespace with this namespace, so that the scenarios run in
+ * parallel with {@link com.decathlon.tzatziki.steps.HttpSteps#isolateScenarios} each move their own state even if their
+ * stubs use the same scenario name. The state goes away with the stubs of the namespace when the scenario ends.
+ */
+public class ScenarioNamespaceListener implements StubLifecycleListener {
+
+    @Override
+    public void beforeStubCreated(StubMapping stub) {
+        inNamespace(stub);
+    }
+
+    @Override
+    public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+        inNamespace(newStub);
+    }
+
+    @Override
+    public String getName() {
+        return "tzatziki-scenario-namespace";
+    }
+
+    private static void inNamespace(StubMapping stub) {
+        Metadata metadata = stub.getMetadata();
+        if (stub.isInScenario() && metadata != null && metadata.containsKey(HttpWiremockUtils.NAMESPACE_METADATA)) {
+            String prefix = metadata.getString(HttpWiremockUtils.NAMESPACE_METADATA) + ":";
+            if (!stub.getScenarioName().startsWith(prefix)) {
+                stub.setScenarioName(prefix + stub.getScenarioName());
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.InMemoryRequestJournalStore;
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the requests received by a WireMock server indexed by url path and method, so that looking for the requests
+ * matching a pattern only goes through the requests sent to the same path and method instead of the whole journal.
+ * <p>
+ * Registered with {@link #register(WireMockConfiguration)}, the journal also backs the request journal of the server
+ * and forgets the requests removed from it, whether they are removed by {@link WireMockServer#resetRequests()},
+ * {@link WireMockServer#resetAll()} or {@link WireMockServer#removeServeEventsMatching(RequestPattern)}.
+ */
+public class ServeEventJournal implements ServeEventListener {
+
+    public static final String NAME = "tzatziki-serve-event-journal";
+
+    private final Map<String, Map<RequestMethod, Map<UUID, ServeEvent>>> paths = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a new journal as an extension of the given configuration and as the store of its request journal. To
+     * be called once the files root of the configuration is set.
+     */
+    public static WireMockConfiguration register(WireMockConfiguration config) {
+        ServeEventJournal journal = new ServeEventJournal();
+        RequestJournalStore requestJournalStore = journal.new Store();
+        return config.extensions(journal).withStores(new DefaultStores(config.filesRoot()) {
+            @Override
+            public RequestJournalStore getRequestJournalStore() {
+                return requestJournalStore;
+            }
+        });
+    }
+
+    /**
+     * @return the journal registered as an extension of the given server, or null if there is none
+     */
+    public static ServeEventJournal of(WireMockServer server) {
+        return (ServeEventJournal) server.getOptions().getDeclaredExtensions().getInstances().get(NAME);
+    }
+
+    /**
+     * @param pattern the pattern the requests should match, or null to get all the requests
+     * @return the received requests matching the given pattern, in no particular order
+     */
+    public Stream<ServeEvent> find(RequestPattern pattern) {
+        if (pattern == null) {
+            return paths.values().stream().flatMap(ServeEventJournal::eventsOf);
+        }
+        Predicate<LoggedRequest> requestMatcher = RequestPattern.thatMatch(pattern)::test;
+        String path = exactPathOf(pattern);
+        Stream<Map<RequestMethod, Map<UUID, ServeEvent>>> methods = path != null
+                ? Stream.ofNullable(paths.get(path))
+                : paths.entrySet().stream().filter(entry -> mayMatch(pattern, entry.getKey())).map(Map.Entry::getValue);
+        return methods
+                .flatMap(events -> events.entrySet().stream())
+                .filter(entry -> pattern.getMethod() == null || pattern.getMethod().match(entry.getKey()).isExactMatch())
+                .flatMap(entry -> entry.getValue().values().stream())
+                .filter(serveEvent -> requestMatcher.test(serveEvent.getRequest()));
+    }
+
+    @Override
+    public void beforeResponseSent(ServeEvent serveEvent, Parameters parameters) {
+        // this is when WireMock adds the request to its own journal
+        record(serveEvent);
+        Signals.signal();
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        // the completed event replaces the one recorded before sending the response, unless it was removed in between
+        Map<UUID, ServeEvent> events = eventsOf(serveEvent.getRequest());
+        if (events != null) {
+            events.replace(serveEvent.getId(), serveEvent);
+        }
+        Signals.signal();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    private void record(ServeEvent serveEvent) {
+        LoggedRequest request = serveEvent.getRequest();
+        paths.computeIfAbsent(Urls.getPath(request.getUrl()), path -> new ConcurrentHashMap<>())
+                .computeIfAbsent(request.getMethod(), method -> new ConcurrentHashMap<>())
+                .put(serveEvent.getId(), serveEvent);
+    }
+
+    private void forget(ServeEvent serveEvent) {
+        Map<UUID, ServeEvent> events = eventsOf(serveEvent.getRequest());
+        if (events != null) {
+            events.remove(serveEvent.getId());
+        }
+    }
+
+    private Map<UUID, ServeEvent> eventsOf(LoggedRequest request) {
+        Map<RequestMethod, Map<UUID, ServeEvent>> methods = paths.get(Urls.getPath(request.getUrl()));
+        return methods != null ? methods.get(request.getMethod()) : null;
+    }
+
+    private static Stream<ServeEvent> eventsOf(Map<RequestMethod, Map<UUID, ServeEvent>> methods) {
+        return methods.values().stream().flatMap(events -> events.values().stream());
+    }
+
+    // the path of urlPathEqualTo and urlEqualTo patterns, which is looked up directly
+    private static String exactPathOf(RequestPattern pattern) {
+        if (pattern.getUrlPath() != null) {
+            return pattern.getUrlPath();
+        }
+        return pattern.getUrl() != null ? Urls.getPath(pattern.getUrl()) : null;
+    }
+
+    private static boolean mayMatch(RequestPattern pattern, String path) {
+        // only the path patterns can be checked without the query string
+        return !(pattern.getUrlMatcher() instanceof UrlPathPattern urlPathPattern) || urlPathPattern.match(path).isExactMatch();
+    }
+
+    /**
+     * The request journal of the server, which tells the journal about the requests it removes.
+     */
+    private class Store extends InMemoryRequestJournalStore {
+
+        @Override
+        public void remove(UUID id) {
+            get(id).ifPresent(ServeEventJournal.this::forget);
+            super.remove(id);
+        }
+
+        @Override
+        public void removeLast() {
+            // only called when the size of the journal is limited, the oldest request is the last one
+            getAll().reduce((newer, older) -> older).ifPresent(ServeEventJournal.this::forget);
+            super.removeLast();
+        }
+
+        @Override
+        public void clear() {
+            paths.clear();
+            super.clear();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * A fixed set of started WireMock servers, leased to the scenarios running in parallel so that each of them gets its own
+ * server without paying for the startup of a Jetty server every time.
+ */
+@Slf4j
+public class WireMockServerPool {
+
+    private final List<WireMockServer> servers;
+    private final BlockingQueue<WireMockServer> available;
+
+    public WireMockServerPool(int size, Supplier<WireMockServer> serverFactory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("the size of the pool must be positive: " + size);
+        }
+        servers = IntStream.range(0, size).mapToObj(i -> {
+            WireMockServer server = serverFactory.get();
+            server.start();
+            return server;
+        }).toList();
+        available = new LinkedBlockingQueue<>(servers);
+        log.debug("started a pool of {} WireMock servers on ports {}", size, servers.stream().map(WireMockServer::port).toList());
+    }
+
+    /**
+     * @return a server that is not used by any other scenario, waiting for one to be released if they are all leased
+     */
+    public WireMockServer lease() {
+        try {
+            return available.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a WireMock server", e);
+        }
+    }
+
+    /**
+     * Resets the given server and makes it available to the next scenario.
+     */
+    public void release(WireMockServer server) {
+        if (!servers.contains(server)) {
+            throw new IllegalArgumentException("this server doesn't belong to the pool");
+        }
+        server.resetAll();
+        available.add(server);
+    }
+
+    public int size() {
+        return servers.size();
+    }
+
+    public int available() {
+        return available.size();
+    }
+}
@@ -14,6 +14,41 @@ class HttpConfigurationPropertiesTest {
         System.clearProperty(HttpConfigurationProperties.HTTP_PORT);
         System.clearProperty(HttpConfigurationProperties.HTTP_MAX_CONCURRENT_REQUESTS);
         System.clearProperty(HttpConfigurationProperties.OAUTH2_TOKEN_URL);
+        System.clearProperty(HttpConfigurationProperties.HTTP_ISOLATE_SCENARIOS);
+        System.clearProperty(HttpConfigurationProperties.HTTP_SERVER_POOL_SIZE);
+    }
+
+    @Test
+    void getIsolateScenariosProperty_returnsFalse_whenNoPropertySet() {
+        Assertions.assertThat(HttpConfigurationProperties.getIsolateScenariosProperty()).isFalse();
+    }
+
+    @Test
+    void getIsolateScenariosProperty_returnsTrue_whenEnabled() {
+        System.setProperty(HttpConfigurationProperties.HTTP_ISOLATE_SCENARIOS, "true");
+
+        Assertions.assertThat(HttpConfigurationProperties.getIsolateScenariosProperty()).isTrue();
+    }
+
+    @Test
+    void getServerPoolSizeProperty_returnsZero_whenNoPropertySet() {
+        Assertions.assertThat(HttpConfigurationProperties.getServerPoolSizeProperty()).isZero();
+    }
+
+    @Test
+    void getServerPoolSizeProperty_returnsConfiguredSize_whenValidSizeSet() {
+        System.setProperty(HttpConfigurationProperties.HTTP_SERVER_POOL_SIZE, "4");
+
+        Assertions.assertThat(HttpConfigurationProperties.getServerPoolSizeProperty()).isEqualTo(4);
+    }
+
+    @Test
+    void getServerPoolSizeProperty_throwsException_whenInvalidSizeSet() {
+        System.setProperty(HttpConfigurationProperties.HTTP_SERVER_POOL_SIZE, "many");
+
+        Assertions.assertThatThrownBy(HttpConfigurationProperties::getServerPoolSizeProperty)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(HttpConfigurationProperties.HTTP_SERVER_POOL_SIZE);
     }
 
     @Test
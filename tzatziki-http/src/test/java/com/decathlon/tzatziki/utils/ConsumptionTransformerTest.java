@@ -0,0 +1,69 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConsumptionTransformer")
+class ConsumptionTransformerTest {
+
+    private final WireMockServer server = new WireMockServer(options().dynamicPort().extensions(new ConsumptionTransformer()));
+
+    @BeforeEach
+    void start() {
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("should serve the whole sequence from a single stub")
+    void servesTheSequenceFromASingleStub() {
+        mockSequence();
+
+        assertThat(server.getStubMappings()).hasSize(1);
+        assertThat(IntStream.range(0, 8).mapToObj(i -> call())).containsExactlyElementsOf(expectedSequence());
+    }
+
+    @Test
+    @DisplayName("should carry on the sequence when it is mocked again, until the server is reset")
+    void countsPerSequenceUntilReset() {
+        mockSequence();
+        IntStream.range(0, 5).forEach(i -> call());
+
+        mockSequence();
+        assertThat(call()).isEqualTo("second");
+
+        server.resetAll();
+        mockSequence();
+        assertThat(call()).isEqualTo("first");
+    }
+
+    private void mockSequence() {
+        server.stubFor(get("/api").willReturn(ConsumptionTransformer.inSequence("GET_/api",
+                List.of(ok("first").build(), ok("second").build(), ok("last").build()),
+                List.of(5, 1, 1))));
+    }
+
+    private String call() {
+        return given().baseUri(server.baseUrl()).get("/api").then().statusCode(200).extract().asString();
+    }
+
+    private static List<String> expectedSequence() {
+        return IntStream.range(0, 8).mapToObj(i -> i < 5 ? "first" : i == 5 ? "second" : "last").toList();
+    }
+}
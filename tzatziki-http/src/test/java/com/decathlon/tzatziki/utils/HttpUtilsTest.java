@@ -1,8 +1,11 @@
 package com.decathlon.tzatziki.utils;
 
+import com.decathlon.tzatziki.steps.HttpSteps;
 import com.decathlon.tzatziki.utils.Interaction.Body;
 import com.decathlon.tzatziki.utils.Interaction.Request;
 import com.decathlon.tzatziki.utils.Interaction.Response;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import io.restassured.RestAssured;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
@@ -12,7 +15,13 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static com.decathlon.tzatziki.utils.HttpUtils.*;
 import static com.decathlon.tzatziki.utils.Method.*;
@@ -109,6 +118,100 @@ class HttpUtilsTest {
         }
     }
 
+    @Nested
+    @DisplayName("Scenario isolation")
+    class ScenarioIsolation {
+
+        @AfterEach
+        void disableIsolation() {
+            ScenarioContext.end();
+            HttpSteps.isolateScenarios = false;
+        }
+
+        @Test
+        @DisplayName("should serve the mocks of each scenario under its own namespace")
+        void isolatesScenarios() {
+            HttpSteps.isolateScenarios = true;
+            ScenarioContext.start("first");
+            Runnable resetFirst = ScenarioContext.wrap(HttpUtils::reset);
+            mockSimpleRequest(HttpWiremockUtils.mocked("http://backend/api"), GET, "200", "{\"scenario\":\"first\"}");
+            String firstTarget = target("http://backend/api");
+
+            ScenarioContext.start("second");
+            assertThat(target("http://backend/api")).isEqualTo("http://backend/api");
+            mockSimpleRequest(HttpWiremockUtils.mocked("http://backend/api"), GET, "200", "{\"scenario\":\"second\"}");
+            String secondTarget = target("http://backend/api");
+
+            assertThat(firstTarget).startsWith(url() + "/_mocked-scenario-").isNotEqualTo(secondTarget);
+            given().get(firstTarget).then().statusCode(200).body("scenario", equalTo("first"));
+            given().get(secondTarget).then().statusCode(200).body("scenario", equalTo("second"));
+
+            reset(); // only removes the mocks of the second scenario
+            given().get(secondTarget).then().statusCode(404);
+            given().get(firstTarget).then().statusCode(200).body("scenario", equalTo("first"));
+
+            resetFirst.run();
+            given().get(firstTarget).then().statusCode(404);
+        }
+
+        @Test
+        @DisplayName("should keep the state of the WireMock scenarios of each namespace apart")
+        void isolatesTheWireMockScenarios() {
+            HttpSteps.isolateScenarios = true;
+            ScenarioContext.start("first");
+            String firstTarget = mockFlow();
+            ScenarioContext.start("second");
+            String secondTarget = mockFlow();
+
+            given().get(firstTarget).then().statusCode(200).body(equalTo("started"));
+            given().get(firstTarget).then().statusCode(200).body(equalTo("done"));
+            given().get(secondTarget).then().statusCode(200).body(equalTo("started"));
+            reset();
+        }
+
+        private String mockFlow() {
+            String path = HttpWiremockUtils.mocked("http://backend/flow");
+            HttpSteps.wireMockServer().stubFor(HttpWiremockUtils.inNamespace(WireMock.get(path).inScenario("flow")
+                    .whenScenarioStateIs(Scenario.STARTED).willSetStateTo("done").willReturn(WireMock.ok("started"))));
+            HttpSteps.wireMockServer().stubFor(HttpWiremockUtils.inNamespace(WireMock.get(path).inScenario("flow")
+                    .whenScenarioStateIs("done").willReturn(WireMock.ok("done"))));
+            return target("http://backend/flow");
+        }
+
+        @Test
+        @DisplayName("should not share the hosts mocked by scenarios running concurrently")
+        void isolatesTheMockedHostsOfConcurrentScenarios() throws Exception {
+            HttpSteps.isolateScenarios = true;
+            int scenarios = 4;
+            CyclicBarrier barrier = new CyclicBarrier(scenarios);
+            ExecutorService executor = Executors.newFixedThreadPool(scenarios);
+            try {
+                List<Callable<Void>> tasks = IntStream.range(0, scenarios).<Callable<Void>>mapToObj(i -> () -> {
+                    ScenarioContext.start("scenario-" + i);
+                    try {
+                        HttpWiremockUtils.mocked("http://backend-" + i + "/api");
+                        barrier.await();
+                        for (int other = 0; other < scenarios; other++) {
+                            String path = "http://backend-" + other + "/api";
+                            assertThat(HttpSteps.MOCKED_PATHS.contains("http://backend-" + other)).isEqualTo(other == i);
+                            assertThat(target(path).equals(path)).isEqualTo(other != i);
+                        }
+                        barrier.await();
+                        reset();
+                    } finally {
+                        ScenarioContext.end();
+                    }
+                    return null;
+                }).toList();
+                for (Future<Void> task : executor.invokeAll(tasks)) {
+                    task.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
     @Nested
     @DisplayName("Simple Request Mocking")
     class SimpleRequestMocking {
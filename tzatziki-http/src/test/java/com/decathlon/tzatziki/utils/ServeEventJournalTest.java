@@ -0,0 +1,73 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ServeEventJournal")
+class ServeEventJournalTest {
+
+    private final WireMockServer server = new WireMockServer(ServeEventJournal.register(options().dynamicPort()));
+    private ServeEventJournal journal;
+
+    @BeforeEach
+    void start() {
+        server.start();
+        journal = ServeEventJournal.of(server);
+        server.stubFor(any(anyUrl()).willReturn(ok()));
+        given().baseUri(server.baseUrl()).get("/users/1?page=1");
+        given().baseUri(server.baseUrl()).post("/users/1");
+        given().baseUri(server.baseUrl()).get("/orders/1");
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("should find the requests matching a pattern like the server journal does")
+    void findsTheMatchingRequests() {
+        assertThat(journal.find(null)).hasSize(3);
+        assertThat(journal.find(getRequestedFor(urlPathMatching("/users/.*")).build()))
+                .extracting(serveEvent -> serveEvent.getRequest().getUrl())
+                .containsExactly("/users/1?page=1");
+        assertThat(journal.find(anyRequestedFor(urlPathEqualTo("/users/1")).build())).hasSize(2);
+        assertThat(journal.find(getRequestedFor(urlEqualTo("/users/1?page=1")).build())).hasSize(1);
+        assertThat(journal.find(getRequestedFor(urlPathEqualTo("/users/1")).withQueryParam("page", equalTo("2")).build())).isEmpty();
+        assertThat(journal.find(getRequestedFor(urlPathEqualTo("/users/2")).build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should forget the requests removed from the server")
+    void followsTheServerResets() {
+        server.removeServeEventsMatching(getRequestedFor(urlPathMatching("/orders/.*")).build());
+        assertThat(journal.find(null)).extracting(ServeEvent::getRequest).noneMatch(request -> request.getUrl().startsWith("/orders"));
+        assertThat(journal.find(null)).hasSize(2);
+
+        server.resetRequests();
+        assertThat(journal.find(null)).isEmpty();
+
+        given().baseUri(server.baseUrl()).get("/orders/2");
+        assertThat(journal.find(getRequestedFor(urlEqualTo("/orders/2")).build())).hasSize(1);
+        server.resetAll();
+        assertThat(journal.find(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep the requests when only the stubs are reset")
+    void survivesTheStubsReset() {
+        server.resetMappings();
+        assertThat(server.getAllServeEvents()).hasSize(3);
+        assertThat(journal.find(null)).hasSize(3);
+        assertThat(journal.find(anyRequestedFor(urlPathEqualTo("/users/1")).build())).hasSize(2);
+    }
+}
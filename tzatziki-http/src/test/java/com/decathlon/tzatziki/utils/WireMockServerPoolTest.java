@@ -0,0 +1,64 @@
+package com.decathlon.tzatziki.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("WireMockServerPool")
+class WireMockServerPoolTest {
+
+    private final List<WireMockServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(WireMockServer::stop);
+    }
+
+    @Test
+    @DisplayName("should lease distinct started servers and reset them when they are released")
+    void leasesAndResetsServers() {
+        WireMockServerPool pool = new WireMockServerPool(2, () -> {
+            WireMockServer server = new WireMockServer(options().dynamicPort());
+            servers.add(server);
+            return server;
+        });
+        assertThat(pool.size()).isEqualTo(2);
+
+        WireMockServer first = pool.lease();
+        WireMockServer second = pool.lease();
+        assertThat(first.isRunning()).isTrue();
+        assertThat(second.isRunning()).isTrue();
+        assertThat(first.port()).isNotEqualTo(second.port());
+        assertThat(pool.available()).isZero();
+
+        first.stubFor(get("/api").willReturn(ok()));
+        pool.release(first);
+        assertThat(pool.available()).isOne();
+        assertThat(first.getStubMappings()).isEmpty();
+        assertThat(pool.lease()).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("should refuse servers that don't belong to the pool")
+    void refusesForeignServers() {
+        WireMockServerPool pool = new WireMockServerPool(1, () -> {
+            WireMockServer server = new WireMockServer(options().dynamicPort());
+            servers.add(server);
+            return server;
+        });
+        WireMockServer foreign = new WireMockServer(options().dynamicPort());
+
+        assertThatThrownBy(() -> pool.release(foreign)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WireMockServerPool(0, () -> foreign)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,11 +1,14 @@
 package com.decathlon.tzatziki.utils;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.fasterxml.jackson.dataformat.yaml.YAMLParser;
@@ -14,8 +17,12 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.common.collect.Lists;
 import lombok.SneakyThrows;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
@@ -73,6 +80,39 @@ public class JacksonMapper implements MapperDelegate {
         return yaml.readValue(content, toJavaType(type));
     }
 
+    @SneakyThrows
+    public <E> E readJson(String content, Type type) {
+        return json.readerFor(toJavaType(type))
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .readValue(content);
+    }
+
+    public <E> E readJson(Reader reader, Type type) throws IOException {
+        return json.readerFor(toJavaType(type))
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                .readValue(reader);
+    }
+
+    public <E> E convert(Object value, Type type) {
+        return json.convertValue(value, toJavaType(type));
+    }
+
+    public void write(Object object, OutputStream outputStream) throws IOException {
+        if (writesAnObjectOrAnArray(object)) {
+            json.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(outputStream, object);
+        } else {
+            // strings and scalars get the special cases of toJson
+            MapperDelegate.super.write(object, outputStream);
+        }
+    }
+
+    private static boolean writesAnObjectOrAnArray(Object object) throws JsonProcessingException {
+        return object instanceof Map || object instanceof Collection || object instanceof Object[]
+                || object != null && !(object instanceof String)
+                && json.getSerializerProviderInstance().findValueSerializer(object.getClass()) instanceof BeanSerializerBase;
+    }
+
     private static JavaType toJavaType(Type type) {
         if (type instanceof ParameterizedType parameterizedType) {
             JavaType[] javaTypes = Stream.of(parameterizedType.getActualTypeArguments()).map(JacksonMapper::toJavaType).toArray(JavaType[]::new);
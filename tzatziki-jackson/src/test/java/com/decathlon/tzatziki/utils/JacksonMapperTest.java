@@ -1,12 +1,19 @@
 package com.decathlon.tzatziki.utils;
 
 import com.decathlon.tzatziki.User;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class JacksonMapperTest {
 
     @Test
@@ -72,4 +79,70 @@ public class JacksonMapperTest {
         Assertions.assertEquals(1, users.size());
         Assertions.assertTrue(users.contains(User.builder().id(1).name("DVador").score(100).build()));
     }
+
+    @Test
+    public void testJsonMapping() {
+        User user = Mapper.read("""
+                {"id": 1, "name": "DVador", "score": 100}
+                """, User.class);
+        Assertions.assertEquals(User.builder().id(1).name("DVador").score(100).build(), user);
+
+        List<Map<String, Object>> users = Mapper.read("""
+                [{"id": 1, "name": ""}, {"id": 2, "name": null}]
+                """);
+        Assertions.assertEquals("", users.get(0).get("name"));
+        Assertions.assertNull(users.get(1).get("name"));
+    }
+
+    @Test
+    public void testJsonMappingWithDotNotation() {
+        Map<String, Object> userAsMap = Mapper.read("""
+                {"id": 1, "user.name": "DVador"}
+                """, Map.class);
+
+        Assertions.assertEquals(Map.of("name", "DVador"), userAsMap.get("user"));
+    }
+
+    @Test
+    public void testYamlFlowMappingStartingLikeJson() {
+        Map<String, Object> userAsMap = Mapper.read("{id: 1, name: DVador}", Map.class);
+
+        Assertions.assertEquals(1, userAsMap.get("id"));
+        Assertions.assertEquals("DVador", userAsMap.get("name"));
+    }
+
+    @Test
+    public void testStreamMapping() {
+        User user = Mapper.read(new ByteArrayInputStream("""
+                {"id": 1, "name": "DVador", "score": 100}
+                """.getBytes(UTF_8)), User.class);
+        Assertions.assertEquals(User.builder().id(1).name("DVador").score(100).build(), user);
+
+        List<User> users = Mapper.read(new StringReader("""
+                [{"id": 1, "name": "DVador"}]
+                """), new TypeReference<List<User>>() {}.getType());
+        Assertions.assertEquals(List.of(User.builder().id(1).name("DVador").build()), users);
+
+        Map<String, Object> userAsMap = Mapper.read(new StringReader("""
+                {"id": 1, "user.name": "DVador"}
+                """));
+        Assertions.assertEquals(Map.of("name", "DVador"), userAsMap.get("user"));
+
+        userAsMap = Mapper.read(new StringReader("""
+                id: 1
+                user.name: DVador
+                """), (Type) Map.class);
+        Assertions.assertEquals(Map.of("name", "DVador"), userAsMap.get("user"));
+    }
+
+    @Test
+    public void testStreamWriting() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Mapper.write(List.of(User.builder().id(1).name("DVador").build()), outputStream);
+        Assertions.assertEquals(Mapper.toJson(List.of(User.builder().id(1).name("DVador").build())), outputStream.toString(UTF_8));
+
+        outputStream.reset();
+        Mapper.write("name: DVador", outputStream);
+        Assertions.assertEquals(Mapper.toJson("name: DVador"), outputStream.toString(UTF_8));
+    }
 }
@@ -2,6 +2,7 @@ package com.decathlon.tzatziki.logging;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.OutputStreamAppender;
+import com.decathlon.tzatziki.utils.Signals;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -21,5 +22,6 @@ public class ListAppender extends OutputStreamAppender<ILoggingEvent> {
     @Override
     protected void append(ILoggingEvent iLoggingEvent) {
         logLines.add(new String(encoder.encode(iLoggingEvent)).trim());
+        Signals.signal();
     }
 }
@@ -2,14 +2,21 @@ package com.decathlon.tzatziki.utils;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
 
+import java.io.*;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Mapper {
     private static boolean convertDotPropertiesToObject = true;
@@ -18,11 +25,26 @@ public class Mapper {
         convertDotPropertiesToObject = shouldConvertDotPropertiesToObject;
     }
 
+    public static boolean convertsDotPropertiesToObject() {
+        return convertDotPropertiesToObject;
+    }
+
+    private static final String MATCH_ONLY_IF_NON_REGEX_FLAG = "(?![ \"']*\\?e)";
+    // We don't need Sonar to check this pattern as the input data is trusted (it's coming from the feature file itself)
+    private static final Pattern DOT_NOTATION = Pattern.compile("(?>([ \\-]*))" + MATCH_ONLY_IF_NON_REGEX_FLAG + "([^.:]+)\\.((?>[^:]+)(?<!\\d{4}-\\d{2}-\\d{2}T\\d{2}):" + MATCH_ONLY_IF_NON_REGEX_FLAG + ".*)"); // NOSONAR
+
     private static final MapperDelegate delegate = ServiceLoader.load(MapperDelegate.class)
             .findFirst()
             .orElseThrow();
 
     public static <E> E read(String content) {
+        if (isPlainJson(content)) {
+            try {
+                return delegate.readJson(content, isList(content) ? List.class : Map.class);
+            } catch (Exception e) {
+                // not valid JSON after all, let's give it a chance as YAML
+            }
+        }
         content = toYaml(content);
         return delegate.read(content);
     }
@@ -40,10 +62,88 @@ public class Mapper {
     }
 
     public static <E> E read(String content, Type type) {
+        if (isPlainJson(content)) {
+            try {
+                return delegate.readJson(content, type);
+            } catch (Exception e) {
+                // not valid JSON after all, let's give it a chance as YAML
+            }
+        }
         content = toYaml(content);
         return delegate.read(content, type);
     }
 
+    /**
+     * Reads the UTF-8 content of a stream, that is left open. See {@link #read(Reader, Type)}.
+     */
+    public static <E> E read(InputStream inputStream, Type type) {
+        return read(new InputStreamReader(inputStream, UTF_8), type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> E read(Reader reader) {
+        BufferedReader content = buffered(reader);
+        return switch (firstNonWhitespaceCharacterOf(content)) {
+            case '{' -> (E) read(content, Map.class);
+            case '[' -> (E) read(content, List.class);
+            default -> read(readFully(content));
+        };
+    }
+
+    /**
+     * Reads the content of a reader, that is left open. JSON content is parsed as it is read, and only goes through
+     * the dot-notation conversion if it has a key containing a dot. Unlike {@link #read(String, Type)}, content
+     * starting like JSON has to be valid JSON. Any other content is read in memory and given to {@link #read(String, Type)}.
+     */
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public static <E> E read(Reader reader, Type type) {
+        BufferedReader content = buffered(reader);
+        int firstCharacter = firstNonWhitespaceCharacterOf(content);
+        if ((firstCharacter == '{' || firstCharacter == '[') && type != String.class) {
+            if (!convertDotPropertiesToObject) {
+                return delegate.readJson(content, type);
+            }
+            Object value = delegate.readJson(content, firstCharacter == '[' ? List.class : Map.class);
+            if (hasDotNotationKeyIn(value)) {
+                // the dot-notation conversion works on the text
+                return read(delegate.toJson(value), type);
+            }
+            return type instanceof Class<?> clazz && clazz.isInstance(value) ? (E) value : delegate.convert(value, type);
+        }
+        return type instanceof Class<?> clazz ? read(readFully(content), (Class<E>) clazz) : read(readFully(content), type);
+    }
+
+    /**
+     * Writes the JSON representation of an object to a stream, that is left open, without building it as a String first.
+     */
+    @SneakyThrows
+    public static void write(Object object, OutputStream outputStream) {
+        delegate.write(object, outputStream);
+    }
+
+    private static BufferedReader buffered(Reader reader) {
+        return reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+    }
+
+    @SneakyThrows
+    private static int firstNonWhitespaceCharacterOf(BufferedReader reader) {
+        int c;
+        do {
+            reader.mark(1);
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        return c;
+    }
+
+    @SneakyThrows
+    private static String readFully(Reader reader) {
+        StringWriter content = new StringWriter();
+        reader.transferTo(content);
+        return content.toString();
+    }
+
     public static String toJson(Object object) {
         return delegate.toJson(object);
     }
@@ -66,15 +166,12 @@ public class Mapper {
         List<String> lines = content.lines().collect(Collectors.toList());
 
         for (int idx = 0; idx < lines.size(); idx++) {
-            String line;
-            String matchOnlyIfNonRegexFlag = "(?![ \"']*\\?e)";
-            String captureDotNotation = "(?>([ \\-]*))" + matchOnlyIfNonRegexFlag + "([^.:]+)\\.((?>[^:]+)(?<!\\d{4}-\\d{2}-\\d{2}T\\d{2}):" + matchOnlyIfNonRegexFlag + ".*)";
-            while ((line = lines.get(idx)).matches(captureDotNotation)) {
-                String rootObjectIndent = line.replaceAll(captureDotNotation, "$1").replace("-", " ");
+            Matcher dotNotation;
+            while ((dotNotation = DOT_NOTATION.matcher(lines.get(idx))).matches()) {
+                String rootObjectIndent = dotNotation.group(1).replace("-", " ");
                 String subObjectIndent = "  " + rootObjectIndent;
-                lines.set(idx, line.replaceAll(captureDotNotation, "$1$2:"));
-                // We don't need Sonar to check this line as the input data is trusted (it's coming from the feature file itself)
-                lines.add(idx + 1, line.replaceAll(captureDotNotation, subObjectIndent + "$3")); // NOSONAR
+                lines.set(idx, dotNotation.group(1) + dotNotation.group(2) + ":");
+                lines.add(idx + 1, subObjectIndent + dotNotation.group(3));
                 for (int subIdx = idx + 2; subIdx < lines.size() && (lines.get(subIdx).startsWith(subObjectIndent) || lines.get(subIdx).startsWith(rootObjectIndent + "-")); subIdx++) {
                     lines.set(subIdx, "  " + lines.get(subIdx));
                 }
@@ -84,6 +181,71 @@ public class Mapper {
         return lines.stream().collect(Collectors.joining("\n"));
     }
 
+    /**
+     * @return true if the content looks like JSON and doesn't need the YAML and dot-notation conversion to be read
+     */
+    private static boolean isPlainJson(String content) {
+        return isJson(content) && !(convertDotPropertiesToObject && hasDotNotationKey(content));
+    }
+
+    /**
+     * Single pass over the content looking for a quoted key containing a dot, like {"user.name": "bob"}.
+     * This can report false positives on invalid JSON, in which case we just take the slow path.
+     */
+    static boolean hasDotNotationKey(String json) {
+        boolean inString = false;
+        boolean hasDot = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '.') {
+                    hasDot = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (hasDot && nextNonWhitespaceCharacterIs(json, i + 1, ':')) {
+                        return true;
+                    }
+                }
+            } else if (c == '"') {
+                inString = true;
+                hasDot = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #hasDotNotationKey(String)} on content that was already read.
+     */
+    static boolean hasDotNotationKeyIn(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getKey() instanceof String key && key.indexOf('.') >= 0 || hasDotNotationKeyIn(entry.getValue())) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Collection<?> values) {
+            for (Object element : values) {
+                if (hasDotNotationKeyIn(element)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean nextNonWhitespaceCharacterIs(String text, int from, char c) {
+        for (int i = from; i < text.length(); i++) {
+            char charAt = text.charAt(i);
+            if (!Character.isWhitespace(charAt)) {
+                return charAt == c;
+            }
+        }
+        return false;
+    }
+
     public static boolean isJson(String value) {
         return firstNonWhitespaceCharacterIs(value, '{', '[');
     }
@@ -1,8 +1,14 @@
 package com.decathlon.tzatziki.utils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
 import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public interface MapperDelegate {
 
     <E> E read(String content);
@@ -13,6 +19,38 @@ public interface MapperDelegate {
 
     <E> E read(String content, Type type);
 
+    /**
+     * Reads content that is known to be plain JSON (no dot-notation keys), without going through YAML.
+     * Implementations should throw if the content is not valid JSON, the caller will then fall back on {@link #read(String, Type)}.
+     */
+    default <E> E readJson(String content, Type type) {
+        return read(content, type);
+    }
+
+    /**
+     * Same as {@link #readJson(String, Type)} but reading the content from a reader, that is left open.
+     * Implementations should parse the content as it is read instead of loading it in memory first.
+     */
+    default <E> E readJson(Reader reader, Type type) throws IOException {
+        StringWriter content = new StringWriter();
+        reader.transferTo(content);
+        return readJson(content.toString(), type);
+    }
+
+    /**
+     * Converts an object that was already read, like a {@link java.util.Map}, into the given type.
+     */
+    default <E> E convert(Object value, Type type) {
+        return readJson(toJson(value), type);
+    }
+
+    /**
+     * Writes the same content as {@link #toJson(Object)} in UTF-8 to the given stream, that is left open.
+     */
+    default void write(Object object, OutputStream outputStream) throws IOException {
+        outputStream.write(toJson(object).getBytes(UTF_8));
+    }
+
     String toJson(Object object);
 
     String toNonDefaultJson(Object object);
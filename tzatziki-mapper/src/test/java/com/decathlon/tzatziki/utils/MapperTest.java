@@ -50,4 +50,12 @@ class MapperTest {
 
         Mapper.shouldConvertDotPropertiesToObject(true);
     }
+
+    @Test
+    void detectDotNotationKeysInJson() {
+        Assertions.assertTrue(Mapper.hasDotNotationKey("{\"user.name\": \"bob\"}"));
+        Assertions.assertTrue(Mapper.hasDotNotationKey("[{\"id\": 1, \"user.name\"\n: \"bob\"}]"));
+        Assertions.assertFalse(Mapper.hasDotNotationKey("{\"name\": \"bob.sponge\", \"score\": 1.5}"));
+        Assertions.assertFalse(Mapper.hasDotNotationKey("{\"name\": \"a \\\".b\\\": c\"}"));
+    }
 }
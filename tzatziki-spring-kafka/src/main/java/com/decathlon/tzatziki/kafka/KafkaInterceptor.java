@@ -2,6 +2,10 @@ package com.decathlon.tzatziki.kafka;
 
 import com.decathlon.tzatziki.steps.KafkaSteps;
 import com.decathlon.tzatziki.utils.Fields;
+import com.decathlon.tzatziki.utils.ScenarioContext;
+import com.decathlon.tzatziki.utils.Signals;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -13,6 +17,7 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.SendResult;
@@ -22,6 +27,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.decathlon.tzatziki.utils.Asserts.awaitUntil;
 import static java.util.Collections.synchronizedMap;
@@ -36,10 +42,15 @@ import static java.util.stream.Collectors.toMap;
 @Slf4j
 public class KafkaInterceptor {
 
-    private static final Set<String> PROCESSED = new LinkedHashSet<>();
-    private static final Set<String> PROCESSING = new LinkedHashSet<>();
+    // records are identified by their topic-partition@offset, so scenarios running in parallel never wait on the same
+    // entry. The entries that nobody waits on are evicted after a while instead of being cleared between scenarios.
+    private static final Cache<String, Boolean> PROCESSED = CacheBuilder.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).build();
+    // a listener is invoked on the thread that polled its records
+    private static final ThreadLocal<Set<String>> PROCESSING = ThreadLocal.withInitial(LinkedHashSet::new);
     private static final Map<TopicPartition, Long> PAST_OFFSETS = synchronizedMap(new LinkedHashMap<>());
     private static final Map<TopicPartition, Long> CURRENT_OFFSETS = synchronizedMap(new LinkedHashMap<>());
+    // the offsets are shared by all the scenarios, only one scenario at a time can use them
+    private static final AtomicReference<ScenarioContext> OFFSETS_OWNER = new AtomicReference<>();
     public static boolean awaitForSuccessfullOnly;
 
     private static boolean enabled = true;
@@ -62,9 +73,10 @@ public class KafkaInterceptor {
             throw t;
         } finally {
             if (throwable == null || !awaitForSuccessfullOnly) {
-                PROCESSED.addAll(PROCESSING);
-                PROCESSING.clear();
+                PROCESSING.get().forEach(processed -> PROCESSED.put(processed, true));
+                PROCESSING.get().clear();
             }
+            Signals.signal();
         }
     }
 
@@ -105,7 +117,7 @@ public class KafkaInterceptor {
                         }
 
                         for (ConsumerRecord<String, ?> record : consumerRecords) {
-                            PROCESSING.add("%s-%s@%s".formatted(record.topic(), record.partition(), record.offset()));
+                            PROCESSING.get().add("%s-%s@%s".formatted(record.topic(), record.partition(), record.offset()));
                             CURRENT_OFFSETS.compute(topicPartitionOf(record),
                                     (t, current) -> Math.max(ofNullable(current).orElse(0L), record.offset() + 1));
                             adjustedOffsetFor(topicPartitionOf(record));
@@ -187,15 +199,31 @@ public class KafkaInterceptor {
     }
 
     public static SendResult<?, ?> waitUntilProcessed(SendResult<?, ?> result) {
-        awaitUntil(() -> PROCESSED.contains(result.getRecordMetadata().toString()));
-        PROCESSED.remove(result.getRecordMetadata().toString());
+        String processed = result.getRecordMetadata().toString();
+        awaitUntil(() -> PROCESSED.getIfPresent(processed) != null);
+        PROCESSED.invalidate(processed);
         return result;
     }
 
+    /**
+     * Starts a new virtual beginning of the topics for the running scenario. The offsets are shared by the consumers of
+     * the application, so this fails if another scenario using Kafka is still running, like when the scenarios are run
+     * in parallel, instead of moving the beginning of the topics under its feet.
+     */
     public static void before() {
+        ScenarioContext scenario = ScenarioContext.current();
+        if (!OFFSETS_OWNER.compareAndSet(null, scenario)) {
+            Assertions.fail("the Kafka steps can't run in parallel with other scenarios, %s is still running. Run the Kafka scenarios sequentially, for instance in their own suite"
+                    .formatted(OFFSETS_OWNER.get()));
+        }
         PAST_OFFSETS.putAll(CURRENT_OFFSETS);
         CURRENT_OFFSETS.clear();
-        PROCESSING.clear();
-        PROCESSED.clear();
+    }
+
+    /**
+     * Lets the next scenario use the offsets.
+     */
+    public static void after() {
+        OFFSETS_OWNER.compareAndSet(ScenarioContext.current(), null);
     }
 }
@@ -5,6 +5,7 @@ import com.decathlon.tzatziki.utils.Comparison;
 import com.decathlon.tzatziki.utils.Guard;
 import com.decathlon.tzatziki.utils.Mapper;
 import com.decathlon.tzatziki.utils.Methods;
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -36,6 +37,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
 
+import java.io.ByteArrayInputStream;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -157,6 +159,11 @@ public class KafkaSteps {
         }));
     }
 
+    @After
+    public void after() {
+        KafkaInterceptor.after();
+    }
+
     @Given(THAT + GUARD + A + "avro schema:$")
     public void an_avro_schema(Guard guard, Object content) {
         guard.in(objects, () -> {
@@ -578,7 +585,9 @@ public class KafkaSteps {
                             .collect(HashMap::new,
                                     (map, header) -> map.put(header.key(), header.value() != null ? new String(header.value()) : null),
                                     HashMap::putAll);
-                    Map<String, Object> value = Mapper.read(record.value().toString());
+                    Map<String, Object> value = record.value() instanceof byte[] bytes
+                            ? Mapper.read(new ByteArrayInputStream(bytes), Map.class)
+                            : Mapper.read(record.value().toString());
                     String messageKey = record.key() != null ? String.valueOf(record.key()) : "";
                     return Map.of("value", value, "headers", headers, "key", messageKey);
                 })
@@ -0,0 +1,36 @@
+package com.decathlon.tzatziki.spring;
+
+import com.decathlon.tzatziki.steps.HttpSteps;
+import com.decathlon.tzatziki.utils.ScenarioContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Binds the thread serving a request sent by a step to the scenario that sent it, so that the calls the application
+ * makes while serving it are remapped to the namespace and the server of this scenario by the {@link HttpInterceptor}.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Component
+public class ScenarioContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain filterChain) throws ServletException, IOException {
+        Optional<ScenarioContext> scenario = ScenarioContext.running(request.getHeader(HttpSteps.SCENARIO_HEADER));
+        if (scenario.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ScenarioContext.Binding binding = scenario.get().bind()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
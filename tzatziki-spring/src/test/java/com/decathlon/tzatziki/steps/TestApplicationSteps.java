@@ -4,6 +4,7 @@ import com.decathlon.tzatziki.app.TestApplication;
 import com.decathlon.tzatziki.spring.HttpInterceptor;
 import com.decathlon.tzatziki.utils.Guard;
 import com.decathlon.tzatziki.utils.Patterns;
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -52,6 +53,17 @@ public class TestApplicationSteps {
         HttpInterceptor.enable();
     }
 
+    // runs after the hook of the HttpSteps, which removes the mocks of the namespace
+    @After(order = 0)
+    public void after() {
+        HttpSteps.isolateScenarios = false;
+    }
+
+    @Given(Patterns.THAT + "the scenarios are isolated")
+    public void the_scenarios_are_isolated() {
+        HttpSteps.isolateScenarios = true;
+    }
+
     @Then("if we disable the HttpInterceptor")
     public void if_we_disable_the_http_interceptor() {
         HttpInterceptor.disable();
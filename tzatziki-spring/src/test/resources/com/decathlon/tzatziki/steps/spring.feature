@@ -56,6 +56,16 @@ Feature: to interact with a spring boot service
       | /web-client-builder-remote-hello         |
       | /web-client-from-builder-remote-hello    |
 
+  Scenario Template: the calls made by the application reach the mocks of an isolated scenario
+    Given that the scenarios are isolated
+    And that calling "http://backend/greeting" will return "Hello from an isolated scenario"
+    Then calling "<endpoint>" returns "Hello from an isolated scenario"
+
+    Examples:
+      | endpoint                                 |
+      | /rest-template-remote-hello              |
+      | /web-client-remote-hello                 |
+
   Scenario: we can still reach the internet
     When we call "http://www.google.com"
     Then we receive a status 200
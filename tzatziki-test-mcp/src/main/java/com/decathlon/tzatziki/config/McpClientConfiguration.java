@@ -2,6 +2,7 @@ package com.decathlon.tzatziki.config;
 
 import com.decathlon.tzatziki.steps.McpSteps;
 import com.decathlon.tzatziki.utils.McpEvent;
+import com.decathlon.tzatziki.utils.Signals;
 import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.spec.McpClientTransport;
@@ -37,30 +38,12 @@ public class McpClientConfiguration {
         McpSchema.ClientCapabilities.Builder clientCapabilitiesBuilder = McpSchema.ClientCapabilities.builder();
 
         McpClient.AsyncSpec asyncSpec = McpClient.async(mcpClientTransport);
-        asyncSpec.toolsChangeConsumer(tools -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromToolsChange(tools));
-                    return Mono.empty();
-                })
-                .resourcesUpdateConsumer(resources -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromResourcesUpdate(resources));
-                    return Mono.empty();
-                })
-                .resourcesChangeConsumer(resources -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromResourcesChange(resources));
-                    return Mono.empty();
-                })
-                .promptsChangeConsumer(prompts -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromPromptsChange(prompts));
-                    return Mono.empty();
-                })
-                .progressConsumer(progressNotification -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromProgressNotification(progressNotification));
-                    return Mono.empty();
-                })
-                .loggingConsumer(loggingMessageNotification -> {
-                    McpSteps.getMcpEvents().add(McpEvent.fromLoggingNotification(loggingMessageNotification));
-                    return Mono.empty();
-                });
+        asyncSpec.toolsChangeConsumer(tools -> onEvent(McpEvent.fromToolsChange(tools)))
+                .resourcesUpdateConsumer(resources -> onEvent(McpEvent.fromResourcesUpdate(resources)))
+                .resourcesChangeConsumer(resources -> onEvent(McpEvent.fromResourcesChange(resources)))
+                .promptsChangeConsumer(prompts -> onEvent(McpEvent.fromPromptsChange(prompts)))
+                .progressConsumer(progressNotification -> onEvent(McpEvent.fromProgressNotification(progressNotification)))
+                .loggingConsumer(loggingMessageNotification -> onEvent(McpEvent.fromLoggingNotification(loggingMessageNotification)));
 
         if (elicitationHandler != null) {
             asyncSpec.elicitation(elicitationHandler);
@@ -79,6 +62,11 @@ public class McpClientConfiguration {
         mcpAsyncClient.initialize().block();
     }
 
+    private static Mono<Void> onEvent(McpEvent event) {
+        McpSteps.getMcpEvents().add(event);
+        Signals.signal();
+        return Mono.empty();
+    }
 
     public void close() {
         mcpAsyncClient.close();